@@ -0,0 +1,69 @@
+#!/usr/bin/env bash
+# Load benchmark of GET /events/{id} with platform and virtual threads.
+#
+# Starts ewm-service once per mode against the running databases and
+# stats-server (docker compose up postgres-main postgres-stat
+# stats-server), loads one published event with wrk and appends the
+# results to bench_output.txt.
+#
+# Settings, as environment variables:
+#   JAR          ewm-service jar (built with mvn -pl ewm-service package)
+#   EVENT_ID     id of a published event
+#   PORT         port of the benchmarked service
+#   CONNECTIONS  space-separated numbers of concurrent connections
+#   DURATION     duration of one run
+#   WARMUP       duration of the warm-up run of each mode
+#   THREADS      wrk threads
+set -euo pipefail
+
+JAR=${JAR:-ewm-service/target/ewm-service-0.0.1-SNAPSHOT.jar}
+EVENT_ID=${EVENT_ID:-1}
+PORT=${PORT:-8081}
+CONNECTIONS=${CONNECTIONS:-"100 1000 5000"}
+DURATION=${DURATION:-30s}
+WARMUP=${WARMUP:-10s}
+THREADS=${THREADS:-4}
+OUTPUT=${OUTPUT:-bench_output.txt}
+URL="http://localhost:${PORT}/events/${EVENT_ID}"
+
+export SPRING_DATASOURCE_URL=${SPRING_DATASOURCE_URL:-jdbc:postgresql://localhost:5432/main_db}
+
+command -v wrk >/dev/null || { echo "wrk is required" >&2; exit 1; }
+[ -f "$JAR" ] || { echo "$JAR not found" >&2; exit 1; }
+
+pid=
+stop_service() {
+    if [ -n "$pid" ]; then
+        kill "$pid" 2>/dev/null || true
+        wait "$pid" 2>/dev/null || true
+        pid=
+    fi
+}
+trap stop_service EXIT
+
+for mode in platform virtual; do
+    profile=$([ "$mode" = virtual ] && echo virtual || echo default)
+    java -jar "$JAR" --server.port="$PORT" \
+        --spring.profiles.active="$profile" \
+        --logging.level.root=WARN \
+        --logging.level.org.springframework.transaction=WARN \
+        >"bench-${mode}.log" 2>&1 &
+    pid=$!
+    until curl -sf "http://localhost:${PORT}/actuator/health" >/dev/null; do
+        kill -0 "$pid" 2>/dev/null \
+            || { echo "service failed, see bench-${mode}.log" >&2; exit 1; }
+        sleep 1
+    done
+    curl -sf "$URL" >/dev/null \
+        || { echo "event ${EVENT_ID} is not published" >&2; exit 1; }
+    wrk -t"$THREADS" -c100 -d"$WARMUP" "$URL" >/dev/null
+    for connections in $CONNECTIONS; do
+        {
+            echo "=== ${mode} threads, ${connections} connections ==="
+            wrk -t"$THREADS" -c"$connections" -d"$DURATION" --latency \
+                --timeout 10s "$URL"
+            echo
+        } | tee -a "$OUTPUT"
+    done
+    stop_service
+done
@@ -2,6 +2,7 @@ package ru.practicum.explorewithme;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 /**
@@ -9,6 +10,7 @@ import org.springframework.scheduling.annotation.EnableAsync;
  */
 @SpringBootApplication(scanBasePackages = "ru.practicum.explorewithme")
 @EnableAsync
+@ConfigurationPropertiesScan
 public class ExploreWithMeApp {
     protected ExploreWithMeApp() {
     }
@@ -0,0 +1,88 @@
+package ru.practicum.explorewithme.cache;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.jcache.MissingCacheStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.explorewithme.category.model.CategoryEntity;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Enables the Hibernate second-level cache for categories, backed by
+ * a local Caffeine cache.
+ * <p>
+ * Categories changed through Hibernate are evicted when their
+ * transaction commits, so admin changes are visible at once. Only
+ * categories are cached: every event listing loads the category of
+ * each event, and neither those lookups nor category lookups by ID go
+ * through a response cache. Compilations are read through their cached
+ * listing pages, and events change with every confirmed request.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ewm.entity-cache", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+public class EntityCacheConfig {
+    /**
+     * Cached regions.
+     */
+    private static final List<String> REGIONS =
+            List.of(CategoryEntity.CACHE_REGION);
+
+    /**
+     * Creates the cache manager holding the cached regions.
+     *
+     * @param properties cache settings
+     * @return the cache manager
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(
+            final EntityCacheProperties properties) {
+        CacheManager cacheManager = Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName()).getCacheManager();
+        CaffeineConfiguration<Object, Object> configuration =
+                new CaffeineConfiguration<>();
+        configuration.setMaximumSize(
+                OptionalLong.of(properties.getMaximumSize()));
+        configuration.setExpireAfterWrite(
+                OptionalLong.of(properties.getExpireAfter().toNanos()));
+        // Hibernate caches disassembled state, which is never modified.
+        configuration.setStoreByValue(false);
+        for (String region : REGIONS) {
+            if (cacheManager.getCache(region) == null) {
+                cacheManager.createCache(region, configuration);
+            }
+        }
+        return cacheManager;
+    }
+
+    /**
+     * Enables the second-level cache with the regions of the cache
+     * manager.
+     *
+     * @param cacheManager the cache manager
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer entityCache(
+            final CacheManager cacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(
+                    AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(
+                    AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER,
+                    cacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY,
+                    MissingCacheStrategy.FAIL.getExternalRepresentation());
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.explorewithme.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the Hibernate second-level cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.entity-cache")
+public class EntityCacheProperties {
+    /**
+     * Default maximum number of entries per region.
+     */
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Whether categories are cached by Hibernate.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of entries per region.
+     */
+    private long maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Time after which an entry expires. Changes made through Hibernate
+     * evict entries at once; this only bounds changes made elsewhere.
+     */
+    private Duration expireAfter = Duration.ofHours(1);
+}
@@ -0,0 +1,98 @@
+package ru.practicum.explorewithme.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.Function;
+
+/**
+ * Local cache of read-mostly responses.
+ * <p>
+ * Changes evict the affected entries after their transaction commits,
+ * so that a concurrent read cannot cache the state from before the
+ * change. Entries also expire after {@code expire-after}, which bounds
+ * the age of data that is copied into a response but changed
+ * elsewhere.
+ *
+ * @param <K> the key type, an immutable value with equals and hashCode
+ * @param <V> the response type, never modified once cached
+ */
+public class ResponseCache<K, V> {
+    /**
+     * Responses by key.
+     */
+    private final Cache<K, V> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param spec cache settings
+     */
+    public ResponseCache(final ResponseCacheProperties.Spec spec) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(spec.getMaximumSize())
+                .expireAfterWrite(spec.getExpireAfter())
+                .build();
+    }
+
+    /**
+     * Returns the cached response, loading it when it is not cached.
+     *
+     * @param key    the key
+     * @param loader loads the response, returns null if there is none,
+     *               which is not cached
+     * @return the response, null if there is none
+     */
+    public V get(final K key, final Function<? super K, ? extends V> loader) {
+        return cache.get(key, loader);
+    }
+
+    /**
+     * Caches a response.
+     *
+     * @param key      the key
+     * @param response the response
+     */
+    public void put(final K key, final V response) {
+        cache.put(key, response);
+    }
+
+    /**
+     * Evicts a response once the current transaction commits, or at
+     * once without a transaction.
+     *
+     * @param key the key
+     */
+    public void evict(final K key) {
+        afterCommit(() -> cache.invalidate(key));
+    }
+
+    /**
+     * Evicts every response once the current transaction commits, or at
+     * once without a transaction.
+     */
+    public void clear() {
+        afterCommit(cache::invalidateAll);
+    }
+
+    /**
+     * Runs an action after the current transaction commits.
+     *
+     * @param action the action
+     */
+    private static void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                });
+    }
+}
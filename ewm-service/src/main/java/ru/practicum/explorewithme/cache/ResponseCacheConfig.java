@@ -0,0 +1,55 @@
+package ru.practicum.explorewithme.cache;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.explorewithme.category.model.CategoryResponse;
+import ru.practicum.explorewithme.compilation.model.CompilationResponse;
+import ru.practicum.explorewithme.event.model.EventResponse;
+
+import java.util.List;
+
+/**
+ * Creates the response caches.
+ */
+@Configuration
+public class ResponseCacheConfig {
+
+    /**
+     * Creates the cache of published events by ID. Views are not part
+     * of the cached response.
+     *
+     * @param properties cache settings
+     * @return the cache
+     */
+    @Bean
+    public ResponseCache<Long, EventResponse> eventResponseCache(
+            final ResponseCacheProperties properties) {
+        return new ResponseCache<>(properties.getEvents());
+    }
+
+    /**
+     * Creates the cache of category listing pages, keyed by offset and
+     * size.
+     *
+     * @param properties cache settings
+     * @return the cache
+     */
+    @Bean
+    public ResponseCache<List<Integer>, List<CategoryResponse>>
+            categoryPageCache(final ResponseCacheProperties properties) {
+        return new ResponseCache<>(properties.getCategories());
+    }
+
+    /**
+     * Creates the cache of compilation listing pages, keyed by pinned,
+     * offset and size.
+     *
+     * @param properties cache settings
+     * @return the cache
+     */
+    @Bean
+    public ResponseCache<List<Object>, List<CompilationResponse>>
+            compilationPageCache(final ResponseCacheProperties properties) {
+        return new ResponseCache<>(properties.getCompilations());
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.explorewithme.cache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the response caches.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.response-cache")
+public class ResponseCacheProperties {
+    /**
+     * Default maximum number of cached published events.
+     */
+    private static final int DEFAULT_EVENTS_SIZE = 10_000;
+    /**
+     * Default maximum number of cached listing pages.
+     */
+    private static final int DEFAULT_PAGES_SIZE = 1_000;
+
+    /**
+     * Published events by ID, without views.
+     */
+    private Spec events = new Spec(DEFAULT_EVENTS_SIZE,
+            Duration.ofMinutes(1));
+
+    /**
+     * Pages of the category listing.
+     */
+    private Spec categories = new Spec(DEFAULT_PAGES_SIZE,
+            Duration.ofMinutes(10));
+
+    /**
+     * Pages of the compilation listing.
+     */
+    private Spec compilations = new Spec(DEFAULT_PAGES_SIZE,
+            Duration.ofMinutes(1));
+
+    /**
+     * Settings of one cache.
+     */
+    @Data
+    public static class Spec {
+        /**
+         * Maximum number of cached responses.
+         */
+        private int maximumSize;
+
+        /**
+         * Age after which a response is loaded again.
+         */
+        private Duration expireAfter;
+
+        /**
+         * Creates settings with defaults.
+         *
+         * @param maximumSize the default maximum number of responses
+         * @param expireAfter the default age limit
+         */
+        public Spec(final int maximumSize, final Duration expireAfter) {
+            this.maximumSize = maximumSize;
+            this.expireAfter = expireAfter;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the local caches of read-mostly responses and
+ * entities of the ExploreWithMe application.
+ */
+package ru.practicum.explorewithme.cache;
@@ -11,6 +11,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.explorewithme.category.model.CategoryResponse;
 import ru.practicum.explorewithme.category.service.CategoryService;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -27,10 +28,14 @@ public class CategoryController {
     private final CategoryService service;
 
     /**
-     * Retrieves a list of categories with pagination.
+     * Retrieves a list of categories with pagination. When a cursor is
+     * given, even an empty one, the page follows the cursor instead of
+     * the offset and the cursor of the next page is returned in the
+     * {@value CursorSlice#NEXT_CURSOR_HEADER} header.
      *
-     * @param from the starting index of the result
-     * @param size the number of results to retrieve
+     * @param from   the starting index of the result
+     * @param size   the number of results to retrieve
+     * @param cursor the cursor of the page
      * @return a response entity containing the list of category responses
      */
     @GetMapping("/categories")
@@ -38,7 +43,11 @@ public class CategoryController {
             @PositiveOrZero @RequestParam(defaultValue = "0")
             final Integer from,
             @Positive @RequestParam(defaultValue = "10")
-            final Integer size) {
+            final Integer size,
+            @RequestParam(required = false) final String cursor) {
+        if (cursor != null) {
+            return service.getCategories(cursor, size).toResponseEntity();
+        }
         log.info("Received request to get categories from {} with size {}",
                 from, size);
         List<CategoryResponse> categories = service.getCategories(from, size);
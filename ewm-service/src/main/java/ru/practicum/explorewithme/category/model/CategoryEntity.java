@@ -9,7 +9,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * Entity representing a category.
@@ -20,7 +21,13 @@ import lombok.NoArgsConstructor;
 @NoArgsConstructor
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE,
+        region = CategoryEntity.CACHE_REGION)
 public class CategoryEntity {
+    /**
+     * Second-level cache region of categories.
+     */
+    public static final String CACHE_REGION = "categories";
 
     /**
      * The unique identifier of the category.
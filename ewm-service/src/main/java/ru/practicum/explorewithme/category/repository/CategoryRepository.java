@@ -1,8 +1,13 @@
 package ru.practicum.explorewithme.category.repository;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 
+import java.util.List;
+
 /**
  * Repository interface for managing {@link CategoryEntity} entities.
  */
@@ -14,4 +19,22 @@ public interface CategoryRepository extends JpaRepository<CategoryEntity,
      * @return true or false
      */
     boolean existsByName(String name);
+
+    /**
+     * Finds a page of categories without counting all categories.
+     *
+     * @param pageable the pagination information
+     * @return the slice of categories
+     */
+    Slice<CategoryEntity> findAllBy(Pageable pageable);
+
+    /**
+     * Finds the categories following an ID in ID order.
+     *
+     * @param id    the ID to start after
+     * @param limit the maximum number of categories
+     * @return the categories
+     */
+    List<CategoryEntity> findByIdGreaterThanOrderById(Integer id,
+                                                      Limit limit);
 }
@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.category.service;
 
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.category.model.CategoryResponse;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -20,6 +21,15 @@ public interface CategoryService {
     List<CategoryResponse> getCategories(
             Integer from, Integer size);
 
+    /**
+     * Retrieves a page of categories in ID order after a cursor.
+     *
+     * @param cursor the cursor of the page, blank for the first page
+     * @param size   the number of results to retrieve
+     * @return the page of category responses
+     */
+    CursorSlice<CategoryResponse> getCategories(String cursor, int size);
+
     /**
      * Retrieves a specific category by its ID.
      *
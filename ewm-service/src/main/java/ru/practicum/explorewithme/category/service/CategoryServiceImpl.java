@@ -2,19 +2,22 @@ package ru.practicum.explorewithme.category.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.category.model.CategoryResponse;
 import ru.practicum.explorewithme.category.model.mapper.CategoryMapper;
 import ru.practicum.explorewithme.category.repository.CategoryRepository;
 import ru.practicum.explorewithme.exception.NotExistException;
+import ru.practicum.explorewithme.pagination.Cursor;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link CategoryService} interface.
@@ -28,6 +31,11 @@ public class CategoryServiceImpl implements CategoryService {
      */
 
     private final CategoryRepository repository;
+    /**
+     * Category listing pages.
+     */
+    private final ResponseCache<List<Integer>, List<CategoryResponse>>
+            pageCache;
 
     /**
      * {@inheritDoc}
@@ -37,15 +45,41 @@ public class CategoryServiceImpl implements CategoryService {
     public List<CategoryResponse> getCategories(
             final Integer from, final Integer size) {
         log.info("Getting categories from index {} with size {}", from, size);
-        Pageable pageable = PageRequest.of(from / size, size);
-        Page<CategoryEntity> categoryEntities = repository.findAll(pageable);
-        List<CategoryResponse> responses = categoryEntities.stream()
-                .map(CategoryMapper::toResponse)
-                .collect(Collectors.toList());
+        List<CategoryResponse> responses = pageCache.get(List.of(from, size),
+                key -> {
+                    Pageable pageable = PageRequest.of(from / size, size);
+                    Slice<CategoryEntity> categoryEntities =
+                            repository.findAllBy(pageable);
+                    return categoryEntities.stream()
+                            .map(CategoryMapper::toResponse)
+                            .toList();
+                });
         log.info("Retrieved {} categories", responses.size());
         return responses;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<CategoryResponse> getCategories(final String cursor,
+                                                       final int size) {
+        log.info("Getting categories after cursor {} with size {}", cursor,
+                size);
+        Cursor after = Cursor.decode(cursor);
+        List<CategoryEntity> categoryEntities =
+                repository.findByIdGreaterThanOrderById(
+                        after == null ? 0 : Math.toIntExact(after.getId()),
+                        Limit.of(size + 1));
+        CursorSlice<CategoryResponse> responses = CursorSlice.of(
+                        categoryEntities, size,
+                        entity -> Cursor.ofId(entity.getId()))
+                .map(CategoryMapper::toResponse);
+        log.info("Retrieved {} categories", responses.getContent().size());
+        return responses;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.explorewithme.compilation.model.CompilationResponse;
 import ru.practicum.explorewithme.compilation.service.CompilationService;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -34,6 +35,10 @@ public class CompilationController {
      * @param pinned the pinned status of the compilations
      * @param from   the starting index of the result
      * @param size   the number of results to retrieve
+     * @param cursor the cursor of the page; when given, even empty, the
+     *               page follows the cursor in ID order instead of the
+     *               offset and the next cursor is returned in the
+     *               {@value CursorSlice#NEXT_CURSOR_HEADER} header
      * @return a response entity containing the list of compilation responses
      */
     @GetMapping
@@ -43,7 +48,12 @@ public class CompilationController {
             @PositiveOrZero @RequestParam(defaultValue = "0")
             final Integer from,
             @Positive @RequestParam(defaultValue = "10")
-            final Integer size) {
+            final Integer size,
+            @RequestParam(required = false) final String cursor) {
+        if (cursor != null) {
+            return service.getCompilations(pinned, cursor, size)
+                    .toResponseEntity();
+        }
         log.info("Received request to get"
                         +
                         " compilations with pinned={}, from={}, size={}",
@@ -1,5 +1,6 @@
 package ru.practicum.explorewithme.compilation.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.explorewithme.compilation.model.CompilationEntity;
@@ -20,4 +21,16 @@ public interface CompilationRepository extends JpaRepository<CompilationEntity,
      * @return the list of compilation entities
      */
     List<CompilationEntity> findAllByPinned(Boolean pinned, Pageable pageable);
+
+    /**
+     * Finds the compilations with the pinned status following an ID
+     * in ID order.
+     *
+     * @param pinned the pinned status
+     * @param id     the ID to start after
+     * @param limit  the maximum number of compilations
+     * @return the compilations
+     */
+    List<CompilationEntity> findByPinnedAndIdGreaterThanOrderById(
+            Boolean pinned, Integer id, Limit limit);
 }
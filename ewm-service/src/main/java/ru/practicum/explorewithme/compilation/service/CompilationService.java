@@ -1,6 +1,7 @@
 package ru.practicum.explorewithme.compilation.service;
 
 import ru.practicum.explorewithme.compilation.model.CompilationResponse;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -21,6 +22,19 @@ public interface CompilationService {
                                               Integer from,
                                               Integer size);
 
+    /**
+     * Retrieves a page of compilations with the pinned status in ID order
+     * after a cursor.
+     *
+     * @param pinned the pinned status of the compilations
+     * @param cursor the cursor of the page, blank for the first page
+     * @param size   the number of results to retrieve
+     * @return the page of compilation responses
+     */
+    CursorSlice<CompilationResponse> getCompilations(Boolean pinned,
+                                                     String cursor,
+                                                     int size);
+
     /**
      * Retrieves a specific compilation by its ID.
      *
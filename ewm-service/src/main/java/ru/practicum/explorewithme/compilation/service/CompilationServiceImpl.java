@@ -2,18 +2,22 @@ package ru.practicum.explorewithme.compilation.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
 import ru.practicum.explorewithme.compilation.model.CompilationEntity;
 import ru.practicum.explorewithme.compilation.model.CompilationMapper;
 import ru.practicum.explorewithme.compilation.model.CompilationResponse;
 import ru.practicum.explorewithme.compilation.repository.CompilationRepository;
 import ru.practicum.explorewithme.exception.NotExistException;
+import ru.practicum.explorewithme.pagination.Cursor;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
+import java.util.Arrays;
 import java.util.List;
-import java.util.stream.Collectors;
 
 /**
  * Implementation of the {@link CompilationService} interface.
@@ -27,6 +31,11 @@ public class CompilationServiceImpl implements CompilationService {
      * REST repository for managing compilations.
      */
     private final CompilationRepository repository;
+    /**
+     * Compilation listing pages.
+     */
+    private final ResponseCache<List<Object>, List<CompilationResponse>>
+            pageCache;
 
     /**
      * {@inheritDoc}
@@ -38,16 +47,40 @@ public class CompilationServiceImpl implements CompilationService {
                                                      final Integer size) {
         log.info("Fetching compilations with pinned={}, from={}, size={}",
                 pinned, from, size);
-        Pageable pageable = PageRequest.of(from / size, size);
-        List<CompilationEntity> entities = repository.findAllByPinned(pinned,
-                pageable);
-        List<CompilationResponse> responses = entities.stream()
-                .map(CompilationMapper::toResponse)
-                .collect(Collectors.toList());
+        // Pinned is optional, so the key cannot be an immutable List.of.
+        List<CompilationResponse> responses = pageCache.get(
+                Arrays.asList(pinned, from, size), key -> {
+                    Pageable pageable = PageRequest.of(from / size, size);
+                    return repository.findAllByPinned(pinned, pageable)
+                            .stream()
+                            .map(CompilationMapper::toResponse)
+                            .toList();
+                });
         log.info("Retrieved {} compilations", responses.size());
         return responses;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<CompilationResponse> getCompilations(
+            final Boolean pinned, final String cursor, final int size) {
+        log.info("Fetching compilations with pinned={}, cursor={}, size={}",
+                pinned, cursor, size);
+        Cursor after = Cursor.decode(cursor);
+        List<CompilationEntity> entities =
+                repository.findByPinnedAndIdGreaterThanOrderById(pinned,
+                        after == null ? 0 : Math.toIntExact(after.getId()),
+                        Limit.of(size + 1));
+        CursorSlice<CompilationResponse> responses = CursorSlice.of(entities,
+                        size, entity -> Cursor.ofId(entity.getId()))
+                .map(CompilationMapper::toResponse);
+        log.info("Retrieved {} compilations", responses.getContent().size());
+        return responses;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -15,6 +15,8 @@ import ru.practicum.explorewithme.event.model.EventResponse;
 import ru.practicum.explorewithme.event.model.EventResponseShort;
 import ru.practicum.explorewithme.event.model.EventSearchCriteria;
 import ru.practicum.explorewithme.event.service.EventService;
+import ru.practicum.explorewithme.pagination.CursorSlice;
+import ru.practicum.explorewithme.pagination.TotalCountCache;
 
 import java.util.List;
 
@@ -36,6 +38,15 @@ public class EventController {
      * @param criteria       the search criteria for events
      * @param from           the starting index of the result
      * @param size           the number of results to retrieve
+     * @param cursor         the cursor of the page; when given, even
+     *                       empty, events follow the cursor in event date
+     *                       order instead of the offset and the next
+     *                       cursor is returned in the
+     *                       {@value CursorSlice#NEXT_CURSOR_HEADER} header
+     * @param withTotal      whether to return the approximate number of
+     *                       matching events in the
+     *                       {@value TotalCountCache#TOTAL_COUNT_HEADER}
+     *                       header
      * @param servletRequest the HTTP servlet request
      * @return a response entity containing the list of event responses
      */
@@ -46,12 +57,22 @@ public class EventController {
             final Integer from,
             @Positive @RequestParam(defaultValue = "10")
             final Integer size,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "false") final boolean withTotal,
             final HttpServletRequest servletRequest
     ) {
-        List<EventResponseShort> responseShorts =
-                service.getEvents(criteria, from, size);
+        ResponseEntity<List<EventResponseShort>> response = cursor != null
+                ? service.getEvents(criteria, cursor, size).toResponseEntity()
+                : ResponseEntity.ok(service.getEvents(criteria, from, size));
         service.saveStatistic(servletRequest);
-        return ResponseEntity.ok(responseShorts);
+        if (!withTotal) {
+            return response;
+        }
+        return ResponseEntity.ok()
+                .headers(response.getHeaders())
+                .header(TotalCountCache.TOTAL_COUNT_HEADER,
+                        String.valueOf(service.countEvents(criteria)))
+                .body(response.getBody());
     }
 
     /**
@@ -6,11 +6,8 @@ import jakarta.persistence.*;
 import lombok.*;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.user.model.UserEntity;
-import ru.practicum.explorewithme.user.request.model.UserEventRequestEntity;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Entity representing an event.
@@ -20,16 +17,27 @@ import java.util.List;
 @AllArgsConstructor
 @Builder
 @Entity
+@NamedEntityGraph(name = EventEntity.LISTING_GRAPH, attributeNodes = {
+        @NamedAttributeNode("category"),
+        @NamedAttributeNode("initiator")
+})
 @Table(name = "events", indexes = {
         @Index(name = "idx_event_date", columnList = "eventDate"),
+        @Index(name = "idx_event_date_id", columnList = "eventDate, id"),
         @Index(name = "idx_event_category", columnList = "category_id"),
         @Index(name = "idx_event_created_on", columnList = "createdOn"),
         @Index(name = "idx_event_category_date", columnList = "category_id, eventDate"),
         @Index(name = "idx_event_initiator_date", columnList = "user_id, eventDate")
 })
-@ToString(exclude = {"category", "initiator", "confirmedRequests"})
+@ToString(exclude = {"category", "initiator"})
 public class EventEntity {
 
+    /**
+     * Entity graph loading everything an event listing maps, so that
+     * a page of events is read in one statement.
+     */
+    public static final String LISTING_GRAPH = "EventEntity.listing";
+
     /**
      * The unique identifier of the event.
      */
@@ -87,11 +95,12 @@ public class EventEntity {
     private long views;
 
     /**
-     * The confirmed requests for the event.
+     * The number of confirmed requests for the event. Maintained only by
+     * atomic updates in {@code EventRepository}, never by entity saves.
      */
-    @OneToMany(mappedBy = "event", fetch = FetchType.LAZY)
+    @Column(name = "confirmed_requests", updatable = false)
     @Builder.Default
-    private List<UserEventRequestEntity> confirmedRequests = new ArrayList<>();
+    private Integer confirmedRequests = 0;
 
     /**
      * The participant limit for the event.
@@ -17,7 +17,7 @@ import java.time.LocalDateTime;
  * DTO for event responses.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @AllArgsConstructor
 @NoArgsConstructor
 public class EventResponse {
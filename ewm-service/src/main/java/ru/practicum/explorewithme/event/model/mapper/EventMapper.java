@@ -31,7 +31,7 @@ public class EventMapper {
                 .description(entity.getDescription())
                 .category(CategoryMapper.toResponse(entity.getCategory()))
                 .eventDate(entity.getEventDate())
-                .confirmedRequests((entity.getConfirmedRequests().size()))
+                .confirmedRequests(entity.getConfirmedRequests())
                 .createdOn(entity.getCreatedOn())
                 .state(entity.getState())
                 .title(entity.getTitle())
@@ -56,7 +56,7 @@ public class EventMapper {
                 .annotation(entity.getAnnotation())
                 .category(CategoryMapper.toResponse(entity.getCategory()))
                 .eventDate(entity.getEventDate())
-                .confirmedRequests((entity.getConfirmedRequests().size()))
+                .confirmedRequests(entity.getConfirmedRequests())
                 .title(entity.getTitle())
                 .views(entity.getViews())
                 .paid(Optional.ofNullable(entity.getPaid()).orElse(false))
@@ -1,28 +1,62 @@
 package ru.practicum.explorewithme.event.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventStatus;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository interface for managing {@link EventEntity} entities.
  */
 public interface EventRepository extends JpaRepository<EventEntity, Long>,
-        JpaSpecificationExecutor<EventEntity> {
+        JpaSpecificationExecutor<EventEntity>, EventRepositoryCustom {
+
+    /**
+     * Finds a page of events matching the specification, together with
+     * their categories and initiators.
+     *
+     * @param spec     the specification
+     * @param pageable the pagination information
+     * @return a page of event entities
+     */
+    @Override
+    @EntityGraph(EventEntity.LISTING_GRAPH)
+    Page<EventEntity> findAll(Specification<EventEntity> spec,
+                              Pageable pageable);
+
+    /**
+     * Finds the events with the given IDs, together with their
+     * categories and initiators.
+     *
+     * @param ids the IDs of the events
+     * @return the event entities
+     */
+    @Override
+    @EntityGraph(EventEntity.LISTING_GRAPH)
+    List<EventEntity> findAllById(Iterable<Long> ids);
 
     /**
      * Finds all events by the initiator's ID with pagination.
      *
      * @param userId   the ID of the initiator
      * @param pageable the pagination information
-     * @return a page of event entities
+     * @return a slice of event entities
      */
-    Optional<Page<EventEntity>> findAllByInitiatorId(Long userId,
+    @EntityGraph(EventEntity.LISTING_GRAPH)
+    Optional<Slice<EventEntity>> findAllByInitiatorId(Long userId,
                                                      Pageable pageable);
 
     /**
@@ -41,8 +75,22 @@ public interface EventRepository extends JpaRepository<EventEntity, Long>,
      * @param state   the status of the event
      * @return an optional containing the event entity if found
      */
+    @EntityGraph(EventEntity.LISTING_GRAPH)
     Optional<EventEntity> findByIdAndState(Long eventId, EventStatus state);
 
+    /**
+     * Finds the events in a state that take place after a moment, the
+     * nearest first, together with their categories and initiators.
+     *
+     * @param state the status of the events
+     * @param after the moment
+     * @param limit the maximum number of events
+     * @return the event entities
+     */
+    @EntityGraph(EventEntity.LISTING_GRAPH)
+    List<EventEntity> findByStateAndEventDateAfterOrderByEventDate(
+            EventStatus state, LocalDateTime after, Limit limit);
+
     /**
      * Checks if a user event request exists for a specific user and event.
      *
@@ -59,4 +107,48 @@ public interface EventRepository extends JpaRepository<EventEntity, Long>,
      * @return true if the request exists, false otherwise
      */
     boolean existsByCategoryId(Integer catId);
+
+    /**
+     * Atomically changes the number of confirmed requests of an event.
+     *
+     * @param eventId the ID of the event
+     * @param delta   the change, negative to decrease
+     * @return the number of updated events
+     */
+    @Modifying
+    @Query("UPDATE EventEntity e "
+            + "SET e.confirmedRequests = e.confirmedRequests + :delta "
+            + "WHERE e.id = :eventId")
+    int addConfirmedRequests(@Param("eventId") Long eventId,
+                             @Param("delta") int delta);
+
+    /**
+     * Atomically confirms one more request of an event if its participant
+     * limit allows it. Concurrent admissions to the same event queue on
+     * the row lock, and each one re-checks the limit against the count
+     * left by the previous one, so the event is never overbooked.
+     *
+     * @param eventId the ID of the event
+     * @return 1 if the request was admitted, 0 if the limit is reached
+     */
+    @Modifying
+    @Query("UPDATE EventEntity e "
+            + "SET e.confirmedRequests = e.confirmedRequests + 1 "
+            + "WHERE e.id = :eventId AND (e.participantLimit = 0 "
+            + "OR e.confirmedRequests < e.participantLimit)")
+    int admitConfirmedRequest(@Param("eventId") Long eventId);
+
+    /**
+     * Locks the confirmed requests counter of an event until the end of
+     * the transaction and returns the number of free places.
+     *
+     * @param eventId the ID of the event
+     * @return the number of free places, or null if the event has no
+     * participant limit
+     */
+    @Query(value = "SELECT CASE WHEN participant_limit = 0 THEN NULL "
+            + "ELSE GREATEST(participant_limit - confirmed_requests, 0) END "
+            + "FROM events WHERE id = :eventId FOR UPDATE",
+            nativeQuery = true)
+    Integer lockFreePlaces(@Param("eventId") Long eventId);
 }
@@ -0,0 +1,50 @@
+package ru.practicum.explorewithme.event.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import ru.practicum.explorewithme.event.model.EventEntity;
+import ru.practicum.explorewithme.event.model.EventResponseShort;
+
+import java.util.List;
+
+/**
+ * Custom queries for {@link EventEntity} entities.
+ */
+public interface EventRepositoryCustom {
+
+    /**
+     * Finds the IDs of the events matching the specification in
+     * ascending order without loading the entities.
+     *
+     * @param spec  the specification
+     * @param limit the maximum number of IDs
+     * @return the event IDs
+     */
+    List<Long> findIds(Specification<EventEntity> spec, int limit);
+
+    /**
+     * Finds the events matching the specification as short responses,
+     * selecting only the columns of {@link EventResponseShort} instead
+     * of loading the entities. Views are left at zero.
+     *
+     * @param spec     the specification
+     * @param pageable the page and sort, or unpaged for all events
+     * @return the short responses
+     */
+    List<EventResponseShort> findShort(Specification<EventEntity> spec,
+                                       Pageable pageable);
+
+    /**
+     * Finds a page of events matching the specification, together with
+     * their categories and initiators, without counting all matching
+     * events. One more row than the page size is read to tell whether
+     * a next page exists.
+     *
+     * @param spec     the specification
+     * @param pageable the pagination information
+     * @return the slice of event entities
+     */
+    Slice<EventEntity> findSlice(Specification<EventEntity> spec,
+                                 Pageable pageable);
+}
@@ -0,0 +1,162 @@
+package ru.practicum.explorewithme.event.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import ru.practicum.explorewithme.category.model.CategoryEntity;
+import ru.practicum.explorewithme.category.model.CategoryResponse;
+import ru.practicum.explorewithme.event.model.EventEntity;
+import ru.practicum.explorewithme.event.model.EventResponseShort;
+import ru.practicum.explorewithme.user.model.UserEntity;
+import ru.practicum.explorewithme.user.model.UserResponseWithEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of the {@link EventRepositoryCustom} interface.
+ */
+public class EventRepositoryCustomImpl implements EventRepositoryCustom {
+    /**
+     * Query hint of the entity graph to fetch.
+     */
+    private static final String FETCH_GRAPH = "jakarta.persistence.fetchgraph";
+
+    /**
+     * Entity manager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<Long> findIds(final Specification<EventEntity> spec,
+                              final int limit) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = criteriaBuilder.createQuery(Long.class);
+        Root<EventEntity> root = query.from(EventEntity.class);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root.get("id"))
+                .orderBy(criteriaBuilder.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<EventResponseShort> findShort(
+            final Specification<EventEntity> spec, final Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = criteriaBuilder.createTupleQuery();
+        Root<EventEntity> root = query.from(EventEntity.class);
+        Join<EventEntity, CategoryEntity> category = root.join("category");
+        Join<EventEntity, UserEntity> initiator = root.join("initiator");
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.multiselect(
+                root.get("id").alias("id"),
+                root.get("title").alias("title"),
+                root.get("annotation").alias("annotation"),
+                root.get("eventDate").alias("eventDate"),
+                root.get("paid").alias("paid"),
+                root.get("confirmedRequests").alias("confirmedRequests"),
+                category.get("id").alias("categoryId"),
+                category.get("name").alias("categoryName"),
+                initiator.get("id").alias("initiatorId"),
+                initiator.get("name").alias("initiatorName"));
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root,
+                    criteriaBuilder));
+        }
+        TypedQuery<Tuple> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset())
+                    .setMaxResults(pageable.getPageSize());
+        }
+        return typedQuery.getResultStream()
+                .map(EventRepositoryCustomImpl::toResponseShort)
+                .toList();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Slice<EventEntity> findSlice(
+            final Specification<EventEntity> spec, final Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<EventEntity> query =
+                criteriaBuilder.createQuery(EventEntity.class);
+        Root<EventEntity> root = query.from(EventEntity.class);
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.select(root);
+        if (pageable.getSort().isSorted()) {
+            query.orderBy(QueryUtils.toOrders(pageable.getSort(), root,
+                    criteriaBuilder));
+        }
+        TypedQuery<EventEntity> typedQuery = entityManager.createQuery(query)
+                .setHint(FETCH_GRAPH, entityManager.getEntityGraph(
+                        EventEntity.LISTING_GRAPH));
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList());
+        }
+        List<EventEntity> rows = typedQuery
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext
+                ? rows.subList(0, pageable.getPageSize())
+                : rows, pageable, hasNext);
+    }
+
+    /**
+     * Maps a selected row to a short response.
+     *
+     * @param row the row
+     * @return the short response
+     */
+    private static EventResponseShort toResponseShort(final Tuple row) {
+        return EventResponseShort.builder()
+                .id(row.get("id", Long.class))
+                .title(row.get("title", String.class))
+                .annotation(row.get("annotation", String.class))
+                .eventDate(row.get("eventDate", LocalDateTime.class))
+                .paid(Boolean.TRUE.equals(row.get("paid", Boolean.class)))
+                .confirmedRequests(
+                        row.get("confirmedRequests", Integer.class))
+                .category(CategoryResponse.builder()
+                        .id(row.get("categoryId", Integer.class))
+                        .name(row.get("categoryName", String.class))
+                        .build())
+                .initiator(UserResponseWithEvent.builder()
+                        .id(row.get("initiatorId", Long.class))
+                        .name(row.get("initiatorName", String.class))
+                        .build())
+                .build();
+    }
+}
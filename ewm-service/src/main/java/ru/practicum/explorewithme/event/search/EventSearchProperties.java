@@ -0,0 +1,17 @@
+package ru.practicum.explorewithme.event.search;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of event searches.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.events.search")
+public class EventSearchProperties {
+    /**
+     * How the text filter of public event searches is matched. Full-text
+     * matching is opt-in, as it matches whole words only.
+     */
+    private TextSearchMode textMode = TextSearchMode.SUBSTRING;
+}
@@ -0,0 +1,55 @@
+package ru.practicum.explorewithme.event.search;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+import org.hibernate.type.spi.TypeConfiguration;
+
+/**
+ * Registers the full-text search functions over event annotation and
+ * description.
+ * <p>
+ * Both functions take the annotation, the description and the searched
+ * text. The document expression is the one of the idx_event_text_search
+ * index, so that matches are served from the index.
+ */
+public class FullTextFunctionContributor implements FunctionContributor {
+    /**
+     * Name of the function matching events against a text.
+     */
+    public static final String MATCH = "fts_match";
+    /**
+     * Name of the function ranking events against a text.
+     */
+    public static final String RANK = "fts_rank";
+
+    /**
+     * Weighted document of annotation and description.
+     */
+    private static final String DOCUMENT =
+            "(setweight(to_tsvector('simple', coalesce(?1, '')), 'A') || "
+                    + "setweight(to_tsvector('simple', coalesce(?2, '')), "
+                    + "'B'))";
+    /**
+     * Query parsed from the searched text.
+     */
+    private static final String QUERY = "websearch_to_tsquery('simple', ?3)";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void contributeFunctions(
+            final FunctionContributions functionContributions) {
+        TypeConfiguration types = functionContributions.getTypeConfiguration();
+        BasicType<Boolean> booleanType = types.getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Double> doubleType = types.getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.DOUBLE);
+        functionContributions.getFunctionRegistry().registerPattern(MATCH,
+                DOCUMENT + " @@ " + QUERY, booleanType);
+        functionContributions.getFunctionRegistry().registerPattern(RANK,
+                "ts_rank(" + DOCUMENT + ", " + QUERY + ")", doubleType);
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.explorewithme.event.search;
+
+/**
+ * Enumeration of the ways the text filter of event searches is matched.
+ */
+public enum TextSearchMode {
+    /**
+     * Case-insensitive substring match of annotation and description.
+     * Matches word fragments but scans every event.
+     */
+    SUBSTRING,
+
+    /**
+     * Indexed full-text match of the words of annotation and
+     * description, ranked by relevance.
+     */
+    FULL_TEXT
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the full-text search over event texts
+ * in the ExploreWithMe application.
+ */
+package ru.practicum.explorewithme.event.search;
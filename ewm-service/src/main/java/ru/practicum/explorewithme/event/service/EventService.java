@@ -5,6 +5,7 @@ import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventResponse;
 import ru.practicum.explorewithme.event.model.EventResponseShort;
 import ru.practicum.explorewithme.event.model.EventSearchCriteria;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 
 import java.util.List;
 
@@ -24,6 +25,27 @@ public interface EventService {
     List<EventResponseShort> getEvents(EventSearchCriteria criteria,
                                        Integer from, Integer size);
 
+    /**
+     * Retrieves a page of events based on search criteria in event date
+     * order after a cursor.
+     *
+     * @param criteria the search criteria for events
+     * @param cursor   the cursor of the page, blank for the first page
+     * @param size     the number of results to retrieve
+     * @return the page of short event responses
+     */
+    CursorSlice<EventResponseShort> getEvents(EventSearchCriteria criteria,
+                                              String cursor, int size);
+
+    /**
+     * Counts the events matching search criteria. The count is cached
+     * for a short time and may lag behind the listing.
+     *
+     * @param criteria the search criteria for events
+     * @return the approximate number of matching events
+     */
+    long countEvents(EventSearchCriteria criteria);
+
     /**
      * Retrieves a specific event by its ID.
      *
@@ -63,5 +85,12 @@ public interface EventService {
      */
     void saveStatistic(HttpServletRequest servletRequest);
 
-    void getEventEntitiesForCache();
+    /**
+     * Caches the upcoming published events and loads their views, the
+     * events closest to their date first.
+     *
+     * @param limit the maximum number of events
+     * @return the number of events cached
+     */
+    int preloadUpcomingEvents(int limit);
 }
@@ -3,15 +3,17 @@ package ru.practicum.explorewithme.event.service;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import reactor.core.publisher.Mono;
 import ru.practicum.explorewithme.StatisticRequest;
+import ru.practicum.explorewithme.cache.ResponseCache;
+import ru.practicum.explorewithme.client.StatisticBatcher;
 import ru.practicum.explorewithme.client.StatisticClient;
 import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventResponse;
@@ -20,13 +22,25 @@ import ru.practicum.explorewithme.event.model.EventSearchCriteria;
 import ru.practicum.explorewithme.event.model.EventStatus;
 import ru.practicum.explorewithme.event.model.mapper.EventMapper;
 import ru.practicum.explorewithme.event.repository.EventRepository;
+import ru.practicum.explorewithme.event.search.EventSearchProperties;
+import ru.practicum.explorewithme.event.search.TextSearchMode;
 import ru.practicum.explorewithme.event.specification.EventSpecification;
+import ru.practicum.explorewithme.event.views.EventViewsCache;
+import ru.practicum.explorewithme.event.views.EventViewsProperties;
 import ru.practicum.explorewithme.exception.BadRequestException;
 import ru.practicum.explorewithme.exception.NotExistException;
+import ru.practicum.explorewithme.exists.RequestLookupCache;
+import ru.practicum.explorewithme.pagination.Cursor;
+import ru.practicum.explorewithme.pagination.CursorSlice;
+import ru.practicum.explorewithme.pagination.TotalCountCache;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -44,6 +58,34 @@ public class EventServiceImpl implements EventService {
      * REST client for managing compilations.
      */
     private final StatisticClient client;
+    /**
+     * Batching statistics sender, present when batching is enabled.
+     */
+    private final ObjectProvider<StatisticBatcher> batcher;
+    /**
+     * Local cache of event views.
+     */
+    private final EventViewsCache viewsCache;
+    /**
+     * Event views settings.
+     */
+    private final EventViewsProperties viewsProperties;
+    /**
+     * Event search settings.
+     */
+    private final EventSearchProperties searchProperties;
+    /**
+     * Cache of listing totals.
+     */
+    private final TotalCountCache totalCountCache;
+    /**
+     * Entities looked up in the current request.
+     */
+    private final RequestLookupCache lookups;
+    /**
+     * Published events by ID, without views.
+     */
+    private final ResponseCache<Long, EventResponse> eventResponseCache;
 
     /**
      * {@inheritDoc}
@@ -57,21 +99,56 @@ public class EventServiceImpl implements EventService {
                 criteria, from, size);
 
         Specification<EventEntity> spec = createSpecification(criteria);
-        Pageable pageable = createPageRequest(criteria, from, size);
-        Page<EventEntity> eventEntities = repository.findAll(spec, pageable);
+        List<EventResponseShort> responses;
+        if ("VIEWS".equalsIgnoreCase(criteria.getSort())) {
+            responses = getEventsSortedByViews(spec, from, size);
+        } else {
+            Pageable pageable = createPageRequest(criteria, from, size);
+            responses = repository.findShort(spec, pageable);
+            setViews(responses, viewsCache.getViews(responses.stream()
+                    .map(EventResponseShort::getId)
+                    .toList()));
+        }
 
-        if (eventEntities.isEmpty()) {
+        if (responses.isEmpty()) {
             throw new BadRequestException("Events not found");
         }
 
-        setEventsViews(eventEntities);
-
-        log.info("Found {} events",
-                eventEntities.getTotalElements());
+        log.info("Found {} events", responses.size());
+        return responses;
+    }
 
-        return eventEntities.stream()
-                .map(EventMapper::toResponseShort)
-                .collect(Collectors.toList());
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<EventResponseShort> getEvents(
+            final EventSearchCriteria criteria,
+            final String cursor, final int size) {
+        log.info("Fetching events with criteria: {}, cursor: {}, size: {}",
+                criteria, cursor, size);
+        if ("VIEWS".equalsIgnoreCase(criteria.getSort())) {
+            throw new BadRequestException(
+                    "Cursor pagination is not supported for sort by views");
+        }
+        Specification<EventEntity> spec = createSpecification(criteria);
+        Cursor after = Cursor.decode(cursor);
+        if (after != null) {
+            spec = spec.and(EventSpecification.afterEventDateAndId(
+                    after.requireEventDate(), after.getId()));
+        }
+        List<EventResponseShort> responses = repository.findShort(spec,
+                PageRequest.of(0, size + 1, Sort.by("eventDate", "id")));
+        CursorSlice<EventResponseShort> page = CursorSlice.of(responses,
+                size, response -> new Cursor(response.getEventDate(),
+                        response.getId()));
+        setViews(page.getContent(), viewsCache.getViews(page.getContent()
+                .stream()
+                .map(EventResponseShort::getId)
+                .toList()));
+        log.info("Found {} events", page.getContent().size());
+        return page;
     }
 
     /**
@@ -79,21 +156,32 @@ public class EventServiceImpl implements EventService {
      */
     @Override
     @Transactional(readOnly = true)
+    public long countEvents(final EventSearchCriteria criteria) {
+        return totalCountCache.get(criteria, () ->
+                repository.count(createSpecification(criteria)));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
     public EventResponse getEvent(final Long id) {
         log.info("Fetching event with ID: {}", id);
-        EventEntity eventEntity = repository.findByIdAndState(
-                id, EventStatus.PUBLISHED)
-                .orElseThrow(() -> new NotExistException(
-                        "This event does not exist"));
+        // The event is checked before its views are requested, so that
+        // missing events never reach the statistics service. Cached
+        // events are checked without a connection.
+        EventResponse cached = eventResponseCache.get(id, key -> repository
+                .findByIdAndState(key, EventStatus.PUBLISHED)
+                .map(EventMapper::toResponse)
+                .orElse(null));
+        if (cached == null) {
+            throw new NotExistException("This event does not exist");
+        }
         log.info("Found event with ID: {}", id);
-        Mono<Map<Long, Integer>> eventViewsResponse =
-                client.getEventViews(createEventsUri(List.of(eventEntity)));
-        Map<Long, Integer> eventViews = eventViewsResponse.block();
-        log.info("Found event views: {}", eventViews);
-        int views = eventViews != null ? eventViews.getOrDefault(id, 0) : 0;
-
-        EventResponse response = EventMapper.toResponse(eventEntity);
-        response.setViews(views);
+        long views = viewsCache.getViews(id);
+        log.info("Found event views: {}", views);
+
+        EventResponse response = cached.toBuilder().views(views).build();
         log.info("Found event response: {} with views: {}",
                 response, response.getViews());
         return response;
@@ -125,7 +213,8 @@ public class EventServiceImpl implements EventService {
     @Transactional(readOnly = true)
     public EventEntity getEventEntity(final Long id) {
         log.info("Fetching event entity with ID: {}", id);
-        EventEntity eventEntity = repository.findById(id)
+        EventEntity eventEntity = lookups.find(EventEntity.class, id,
+                        () -> repository.findById(id))
                 .orElseThrow(() -> new NotExistException(
                         "Event does not exist"));
         log.info("Found event entity with ID: {}", id);
@@ -155,27 +244,87 @@ public class EventServiceImpl implements EventService {
                 .app("ewm-main-service")
                 .ip(servletRequest.getRemoteAddr())
                 .uri(servletRequest.getRequestURI())
+                .creationTime(LocalDateTime.now())
                 .build();
-        client.sendStats(statisticRequest).subscribe();
+        StatisticBatcher statisticBatcher = batcher.getIfAvailable();
+        if (statisticBatcher != null) {
+            statisticBatcher.record(statisticRequest);
+        } else {
+            client.sendStats(statisticRequest).subscribe();
+        }
     }
 
+    /**
+     * {@inheritDoc}
+     */
     @Override
-    public void getEventEntitiesForCache() {
-        repository.findAll();
+    @Transactional(readOnly = true)
+    public int preloadUpcomingEvents(final int limit) {
+        List<EventEntity> events =
+                repository.findByStateAndEventDateAfterOrderByEventDate(
+                        EventStatus.PUBLISHED, LocalDateTime.now(),
+                        Limit.of(limit));
+        events.forEach(event -> eventResponseCache.put(event.getId(),
+                EventMapper.toResponse(event)));
+        viewsCache.getViews(events.stream().map(EventEntity::getId).toList());
+        return events.size();
+    }
+
+    /**
+     * Ranks the matching events by their current views and returns the
+     * requested page. Listings matching more than {@code sort-candidates}
+     * events are rejected, and listings whose views cannot all be loaded
+     * fail, rather than being answered in a wrong order.
+     *
+     * @param spec the specification of the matching events
+     * @param from the starting index of the page
+     * @param size the size of the page
+     * @return the page of events with views
+     */
+    private List<EventResponseShort> getEventsSortedByViews(
+            final Specification<EventEntity> spec,
+            final Integer from, final Integer size) {
+        int limit = viewsProperties.getSortCandidates();
+        List<Long> candidates = repository.findIds(spec, limit + 1);
+        if (candidates.size() > limit) {
+            throw new BadRequestException(String.format("Sorting by views "
+                    + "is limited to %d matching events, narrow the filters",
+                    limit));
+        }
+        Map<Long, Long> views = viewsCache.getAllViews(candidates);
+        List<Long> pageIds = candidates.stream()
+                .sorted(Comparator.<Long>comparingLong(id ->
+                                views.getOrDefault(id, 0L)).reversed()
+                        .thenComparing(Comparator.naturalOrder()))
+                .skip((long) Math.floorDiv(from, size) * size)
+                .limit(size)
+                .toList();
+        if (pageIds.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, EventResponseShort> responses = repository
+                .findShort(EventSpecification.hasIds(pageIds),
+                        Pageable.unpaged()).stream()
+                .collect(Collectors.toMap(EventResponseShort::getId,
+                        Function.identity()));
+        List<EventResponseShort> page = pageIds.stream()
+                .map(responses::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        setViews(page, views);
+        return page;
     }
 
     /**
-     * Sets the views for a list of event entities asynchronously.
+     * Sets the views of short responses.
      *
-     * @param eventEntities the list of event entities
-     */
-    private void setEventsViews(final Page<EventEntity> eventEntities) {
-        client.getEventViews(createEventsUri(eventEntities.toList()))
-                .subscribe(eventViews -> {
-                    eventEntities.forEach(entity ->
-                            entity.setViews(eventViews.getOrDefault(
-                                    entity.getId(), 0)));
-                });
+     * @param responses the short responses
+     * @param views     the views by event ID
+     */
+    private void setViews(final List<EventResponseShort> responses,
+                          final Map<Long, Long> views) {
+        responses.forEach(response -> response.setViews(
+                views.getOrDefault(response.getId(), 0L)));
     }
 
     /**
@@ -202,8 +351,10 @@ public class EventServiceImpl implements EventService {
                     criteria.getRangeEnd()));
         }
         if (criteria.getText() != null && !criteria.getText().isEmpty()) {
-            spec = spec.and(EventSpecification.containsText(
-                    criteria.getText()));
+            spec = spec.and(searchProperties.getTextMode()
+                    == TextSearchMode.FULL_TEXT
+                    ? EventSpecification.matchesText(criteria.getText())
+                    : EventSpecification.containsText(criteria.getText()));
         }
         if (Boolean.TRUE.equals(criteria.getOnlyAvailable())) {
             spec = spec.and(EventSpecification.isAvailable());
@@ -229,15 +380,7 @@ public class EventServiceImpl implements EventService {
         Sort sort = Sort.unsorted();
         if ("EVENT_DATE".equalsIgnoreCase(criteria.getSort())) {
             sort = Sort.by(Sort.Direction.ASC, "eventDate");
-        } else if ("VIEWS".equalsIgnoreCase(criteria.getSort())) {
-            sort = Sort.by(Sort.Direction.DESC, "views");
         }
         return PageRequest.of(Math.floorDiv(from, size), size, sort);
     }
-
-    private List<String> createEventsUri(final List<EventEntity> eventEntity) {
-        return eventEntity.stream()
-                .map(entity -> String.format("/events/" + entity.getId()))
-                .collect(Collectors.toList());
-    }
 }
@@ -1,10 +1,12 @@
 package ru.practicum.explorewithme.event.specification;
 
 import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventStatus;
+import ru.practicum.explorewithme.event.search.FullTextFunctionContributor;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -28,6 +30,48 @@ public class EventSpecification {
                 root.get("initiator").get("id").in(users);
     }
 
+    /**
+     * Creates a specification for filtering events by their IDs.
+     *
+     * @param ids the list of event IDs
+     * @return the specification
+     */
+    public static Specification<EventEntity> hasIds(final List<Long> ids) {
+        return (root, query, criteriaBuilder) -> root.get("id").in(ids);
+    }
+
+    /**
+     * Creates a specification for filtering events following an ID in
+     * ID order.
+     *
+     * @param id the ID to start after
+     * @return the specification
+     */
+    public static Specification<EventEntity> afterId(final long id) {
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThan(root.get("id"), id);
+    }
+
+    /**
+     * Creates a specification for filtering events following a position
+     * in event date and ID order. The redundant lower bound on the date
+     * lets the date index serve the condition.
+     *
+     * @param eventDate the event date to start after
+     * @param id        the ID to start after within that date
+     * @return the specification
+     */
+    public static Specification<EventEntity> afterEventDateAndId(
+            final LocalDateTime eventDate, final long id) {
+        return (root, query, criteriaBuilder) -> criteriaBuilder.and(
+                criteriaBuilder.greaterThanOrEqualTo(
+                        root.get("eventDate"), eventDate),
+                criteriaBuilder.or(
+                        criteriaBuilder.greaterThan(
+                                root.get("eventDate"), eventDate),
+                        criteriaBuilder.greaterThan(root.get("id"), id)));
+    }
+
     /**
      * Creates a specification for filtering events by state.
      *
@@ -106,15 +150,42 @@ public class EventSpecification {
         };
     }
 
+    /**
+     * Creates a specification for filtering events whose annotation or
+     * description contain the words of the text, using the full-text
+     * index. Entity queries are ordered by relevance unless they are
+     * sorted otherwise.
+     *
+     * @param text the text to search for, in web search syntax
+     * @return the specification
+     */
+    public static Specification<EventEntity> matchesText(final String text) {
+        return (root, query, criteriaBuilder) -> {
+            Expression<String> searched = criteriaBuilder.literal(text);
+            if (!Long.class.equals(query.getResultType())
+                    && query.getOrderList().isEmpty()) {
+                query.orderBy(criteriaBuilder.desc(criteriaBuilder.function(
+                        FullTextFunctionContributor.RANK, Double.class,
+                        root.get("annotation"), root.get("description"),
+                        searched)));
+            }
+            return criteriaBuilder.isTrue(criteriaBuilder.function(
+                    FullTextFunctionContributor.MATCH, Boolean.class,
+                    root.get("annotation"), root.get("description"),
+                    searched));
+        };
+    }
+
     /**
      * Creates a specification for filtering events by availability.
      *
      * @return the specification
      */
     public static Specification<EventEntity> isAvailable() {
-        return (root, query, criteriaBuilder) ->
+        return (root, query, criteriaBuilder) -> criteriaBuilder.or(
+                criteriaBuilder.equal(root.get("participantLimit"), 0),
                 criteriaBuilder.lessThan(root.get("confirmedRequests"),
-                        root.get("participantLimit"));
+                        root.get("participantLimit")));
     }
 
     /**
@@ -0,0 +1,172 @@
+package ru.practicum.explorewithme.event.views;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import ru.practicum.explorewithme.client.StatisticClient;
+import ru.practicum.explorewithme.exception.ServiceUnavailableException;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Local cache of event views loaded from the statistics service.
+ * <p>
+ * Views older than {@code refresh-after} are served while a background
+ * call refreshes them; views older than {@code expire-after} are
+ * dropped. A request waits at most {@code wait-timeout} for views that
+ * are not cached yet and is answered with zero views for them, while
+ * the load completes in the background.
+ */
+@Component
+@Slf4j
+public class EventViewsCache {
+    /**
+     * Maximum number of concurrent calls of one load.
+     */
+    private static final int MAX_CONCURRENT_CALLS = 4;
+
+    /**
+     * Statistics client.
+     */
+    private final StatisticClient client;
+    /**
+     * Cache settings.
+     */
+    private final EventViewsProperties properties;
+    /**
+     * Views by event id.
+     */
+    private final AsyncLoadingCache<Long, Long> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param client     statistics client
+     * @param properties cache settings
+     */
+    public EventViewsCache(final StatisticClient client,
+                           final EventViewsProperties properties) {
+        this.client = client;
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .expireAfterWrite(properties.getExpireAfter())
+                .buildAsync(new AsyncCacheLoader<>() {
+                    @Override
+                    public CompletableFuture<? extends Long> asyncLoad(
+                            final Long id, final Executor executor) {
+                        return fetch(Set.of(id)).thenApply(views ->
+                                views.get(id));
+                    }
+
+                    @Override
+                    public CompletableFuture<? extends Map<? extends Long,
+                            ? extends Long>> asyncLoadAll(
+                            final Set<? extends Long> ids,
+                            final Executor executor) {
+                        return fetch(ids);
+                    }
+                });
+    }
+
+    /**
+     * Returns the views of an event.
+     *
+     * @param id the event id
+     * @return the views, zero if they are not available in time
+     */
+    public long getViews(final Long id) {
+        return getViews(List.of(id)).getOrDefault(id, 0L);
+    }
+
+    /**
+     * Returns the views of the events, loading the ones that are not
+     * cached in one call.
+     *
+     * @param ids the event ids
+     * @return the views of the events that are available in time
+     */
+    public Map<Long, Long> getViews(final Collection<Long> ids) {
+        CompletableFuture<Map<Long, Long>> views = cache.getAll(ids);
+        try {
+            return views.get(properties.getWaitTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Views of events {} are not loaded in time", ids);
+        } catch (ExecutionException e) {
+            log.warn("Failed to load views of events {}", ids, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return cache.synchronous().getAllPresent(ids);
+    }
+
+    /**
+     * Returns the views of all the events, waiting up to
+     * {@code sort-timeout} for the ones that are not cached yet.
+     *
+     * @param ids the event ids
+     * @return the views of every event, zero for events without views
+     * @throws ServiceUnavailableException if not all views are loaded
+     *                                     in time
+     */
+    public Map<Long, Long> getAllViews(final Collection<Long> ids) {
+        try {
+            return cache.getAll(ids).get(
+                    properties.getSortTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Views of {} events are not loaded in time", ids.size());
+        } catch (ExecutionException e) {
+            log.warn("Failed to load views of {} events", ids.size(),
+                    e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new ServiceUnavailableException(
+                "Views of events are not available");
+    }
+
+    /**
+     * Loads the views of the events from the statistics service in calls
+     * of at most {@code batch-size} events.
+     *
+     * @param ids the event ids
+     * @return the views of every event, zero for events without views
+     */
+    private CompletableFuture<Map<Long, Long>> fetch(
+            final Set<? extends Long> ids) {
+        List<Long> idList = new ArrayList<>(ids);
+        int batchSize = Math.max(1, properties.getBatchSize());
+        return Flux.range(0, (idList.size() + batchSize - 1) / batchSize)
+                .map(batch -> idList.subList(batch * batchSize,
+                        Math.min((batch + 1) * batchSize, idList.size())))
+                .flatMap(batch -> client.getEventViews(batch.stream()
+                                .map(id -> "/events/" + id)
+                                .toList())
+                        .timeout(properties.getLoadTimeout()),
+                        MAX_CONCURRENT_CALLS)
+                .collect(HashMap<Long, Integer>::new, Map::putAll)
+                .map(found -> {
+                    Map<Long, Long> views = new HashMap<>();
+                    ids.forEach(id -> views.put(id,
+                            found.getOrDefault(id, 0).longValue()));
+                    return views;
+                })
+                .toFuture();
+    }
+}
@@ -0,0 +1,71 @@
+package ru.practicum.explorewithme.event.views;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the local event views cache.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.views.cache")
+public class EventViewsProperties {
+    /**
+     * Default maximum number of cached events.
+     */
+    private static final int DEFAULT_MAXIMUM_SIZE = 100_000;
+    /**
+     * Default number of events per call to the statistics service.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 200;
+    /**
+     * Default maximum number of events ranked by views.
+     */
+    private static final int DEFAULT_SORT_CANDIDATES = 10_000;
+
+    /**
+     * Maximum number of cached events.
+     */
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Age after which cached views are still served but refreshed
+     * in the background.
+     */
+    private Duration refreshAfter = Duration.ofSeconds(30);
+
+    /**
+     * Age after which cached views are no longer served.
+     */
+    private Duration expireAfter = Duration.ofMinutes(10);
+
+    /**
+     * Maximum duration of one call to the statistics service.
+     */
+    private Duration loadTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum number of events whose views are requested in one call to
+     * the statistics service.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Maximum number of matching events of a listing sorted by views.
+     * Listings matching more events are rejected.
+     */
+    private int sortCandidates = DEFAULT_SORT_CANDIDATES;
+
+    /**
+     * How long a request waits for views that are not cached yet before
+     * it is answered without them.
+     */
+    private Duration waitTimeout = Duration.ofMillis(200);
+
+    /**
+     * How long a listing sorted by views waits for the views of all
+     * matching events before it fails.
+     */
+    private Duration sortTimeout = Duration.ofSeconds(5);
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the local cache of event views
+ * in the ExploreWithMe application.
+ */
+package ru.practicum.explorewithme.event.views;
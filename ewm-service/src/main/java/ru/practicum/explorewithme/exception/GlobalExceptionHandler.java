@@ -146,4 +146,22 @@ public class GlobalExceptionHandler {
         errorResponse.put("timestamp", LocalDateTime.now().toString());
         return ResponseEntity.badRequest().body(errorResponse);
     }
+
+    /**
+     * Handles service unavailable exceptions.
+     *
+     * @param ex the ServiceUnavailableException
+     * @return a response entity with error details
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<Map<String, String>> handleServiceUnavailable(
+            final ServiceUnavailableException ex) {
+        Map<String, String> errorResponse = new HashMap<>();
+        errorResponse.put("status", "SERVICE_UNAVAILABLE");
+        errorResponse.put("reason", "Service unavailable.");
+        errorResponse.put("message", ex.getMessage());
+        errorResponse.put("timestamp", LocalDateTime.now().toString());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .body(errorResponse);
+    }
 }
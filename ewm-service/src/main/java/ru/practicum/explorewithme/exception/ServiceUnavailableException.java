@@ -0,0 +1,16 @@
+package ru.practicum.explorewithme.exception;
+
+/**
+ * Exception thrown when a dependency needed to answer is not available.
+ */
+public class ServiceUnavailableException extends RuntimeException {
+    /**
+     * Constructs a new ServiceUnavailableException with the specified
+     * detail message.
+     *
+     * @param message the detail message
+     */
+    public ServiceUnavailableException(String message) {
+        super(message);
+    }
+}
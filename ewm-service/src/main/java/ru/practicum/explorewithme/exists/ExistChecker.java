@@ -2,17 +2,26 @@ package ru.practicum.explorewithme.exists;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.category.repository.CategoryRepository;
+import ru.practicum.explorewithme.compilation.model.CompilationEntity;
 import ru.practicum.explorewithme.compilation.repository.CompilationRepository;
+import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.repository.EventRepository;
 import ru.practicum.explorewithme.exception.AlreadyExistException;
 import ru.practicum.explorewithme.exception.NotExistException;
+import ru.practicum.explorewithme.subscription.model.SubscriptionEntity;
 import ru.practicum.explorewithme.subscription.repository.SubscriptionRepository;
+import ru.practicum.explorewithme.user.model.UserEntity;
 import ru.practicum.explorewithme.user.repository.AdminUserRepository;
 import ru.practicum.explorewithme.user.repository.RequestRepository;
+import ru.practicum.explorewithme.user.request.model.UserEventRequestEntity;
 
 /**
  * Component for checking the existence of various entities.
+ * <p>
+ * Checks by ID load the entity through the {@link RequestLookupCache},
+ * so that loading it afterwards in the same request costs no query.
  */
 @RequiredArgsConstructor
 @Component
@@ -39,6 +48,10 @@ public class ExistChecker {
     private final RequestRepository requestRepository;
 
     private final SubscriptionRepository subscriptionRepository;
+    /**
+     * Entities looked up in the current request.
+     */
+    private final RequestLookupCache lookups;
 
     /**
      * Checks if a user exists.
@@ -47,7 +60,8 @@ public class ExistChecker {
      * @throws NotExistException if the user does not exist
      */
     public void isUserExist(final Long userId) {
-        boolean existsById = adminUserRepository.existsById(userId);
+        boolean existsById = lookups.find(UserEntity.class, userId,
+                () -> adminUserRepository.findById(userId)).isPresent();
         if (!existsById) {
             throw new NotExistException("User not exists");
         }
@@ -60,7 +74,8 @@ public class ExistChecker {
      * @throws NotExistException if the event does not exist
      */
     public void isEventExists(final Long eventId) {
-        boolean existsById = eventRepository.existsById(eventId);
+        boolean existsById = lookups.find(EventEntity.class, eventId,
+                () -> eventRepository.findById(eventId)).isPresent();
         if (!existsById) {
             throw new NotExistException("Event not exists");
         }
@@ -73,7 +88,8 @@ public class ExistChecker {
      * @throws NotExistException if the compilation does not exist
      */
     public void isCompilationExists(final Integer compId) {
-        boolean existsById = compilationRepository.existsById(compId);
+        boolean existsById = lookups.find(CompilationEntity.class, compId,
+                () -> compilationRepository.findById(compId)).isPresent();
         if (!existsById) {
             throw new NotExistException("Compilation not exists");
         }
@@ -86,7 +102,8 @@ public class ExistChecker {
      * @throws NotExistException if the category does not exist
      */
     public void isCategoryExists(final Integer catId) {
-        boolean existsById = categoryRepository.existsById(catId);
+        boolean existsById = lookups.find(CategoryEntity.class, catId,
+                () -> categoryRepository.findById(catId)).isPresent();
         if (!existsById) {
             throw new NotExistException("Category not exists");
         }
@@ -99,7 +116,8 @@ public class ExistChecker {
      * @throws NotExistException if the request does not exist
      */
     public void isRequestExists(final Long reqId) {
-        boolean existsById = requestRepository.existsById(reqId);
+        boolean existsById = lookups.find(UserEventRequestEntity.class, reqId,
+                () -> requestRepository.findById(reqId)).isPresent();
         if (!existsById) {
             throw new NotExistException("Request not exists");
         }
@@ -163,7 +181,10 @@ public class ExistChecker {
     }
 
     public void isSubscriptionExists(Long subscriptionId) {
-        boolean existsById = subscriptionRepository.existsById(subscriptionId);
+        boolean existsById = lookups.find(SubscriptionEntity.class,
+                subscriptionId,
+                () -> subscriptionRepository.findById(subscriptionId))
+                .isPresent();
         if (!existsById) {
             throw new NotExistException("Subscription not exists");
         }
@@ -0,0 +1,78 @@
+package ru.practicum.explorewithme.exists;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the entities looked up by ID, and the IDs found missing,
+ * for the duration of the current HTTP request, so that an existence
+ * check and the loads that follow it read an entity at most once.
+ * <p>
+ * Outside of an HTTP request every lookup goes to the loader. Entities
+ * are expected to stay managed for the whole request, which holds with
+ * open-session-in-view.
+ */
+@Component
+public class RequestLookupCache {
+    /**
+     * Name of the request attribute holding the lookups.
+     */
+    private static final String ATTRIBUTE =
+            RequestLookupCache.class.getName();
+
+    /**
+     * Finds an entity by ID, loading it only on the first lookup of the
+     * request.
+     *
+     * @param type   the entity type
+     * @param id     the entity ID
+     * @param loader loads the entity when it is not remembered
+     * @param <T>    the entity type
+     * @return the entity, empty if it does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> find(final Class<T> type, final Object id,
+                                final Supplier<Optional<T>> loader) {
+        Map<Object, Optional<?>> lookups = lookups(type);
+        if (lookups == null) {
+            return loader.get();
+        }
+        Optional<?> found = lookups.get(id);
+        if (found == null) {
+            found = loader.get();
+            lookups.put(id, found);
+        }
+        return (Optional<T>) found;
+    }
+
+    /**
+     * Returns the lookups of one entity type in the current request.
+     *
+     * @param type the entity type
+     * @return the lookups by ID, null outside of an HTTP request
+     */
+    @SuppressWarnings("unchecked")
+    private Map<Object, Optional<?>> lookups(final Class<?> type) {
+        RequestAttributes attributes =
+                RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Map<Class<?>, Map<Object, Optional<?>>> byType =
+                (Map<Class<?>, Map<Object, Optional<?>>>) attributes
+                        .getAttribute(ATTRIBUTE,
+                                RequestAttributes.SCOPE_REQUEST);
+        if (byType == null) {
+            byType = new HashMap<>();
+            attributes.setAttribute(ATTRIBUTE, byType,
+                    RequestAttributes.SCOPE_REQUEST);
+        }
+        return byType.computeIfAbsent(type, key -> new HashMap<>());
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.explorewithme.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.explorewithme.exception.BadRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in a listing ordered by ID, or by event date and then ID.
+ * The position is the sort key of the last returned row; the next page
+ * starts right after it.
+ * <p>
+ * Clients receive cursors as opaque URL-safe tokens and pass them back
+ * unchanged.
+ */
+@Getter
+@AllArgsConstructor
+public class Cursor {
+    /**
+     * Separator of the key parts in a token.
+     */
+    private static final String SEPARATOR = ",";
+
+    /**
+     * The event date of the last row, null in listings ordered by ID.
+     */
+    private final LocalDateTime eventDate;
+
+    /**
+     * The ID of the last row.
+     */
+    private final long id;
+
+    /**
+     * Creates the position of a row in a listing ordered by ID.
+     *
+     * @param id the ID of the row
+     * @return the cursor
+     */
+    public static Cursor ofId(final long id) {
+        return new Cursor(null, id);
+    }
+
+    /**
+     * Decodes a token received from a client.
+     *
+     * @param token the token, blank for the first page
+     * @return the cursor, null for the first page
+     * @throws BadRequestException if the token is malformed
+     */
+    public static Cursor decode(final String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token),
+                    StandardCharsets.UTF_8);
+            int separator = key.indexOf(SEPARATOR);
+            if (separator < 0) {
+                return ofId(Long.parseLong(key));
+            }
+            return new Cursor(
+                    LocalDateTime.parse(key.substring(0, separator)),
+                    Long.parseLong(key.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("Malformed cursor: " + token);
+        }
+    }
+
+    /**
+     * Encodes the cursor as a token for a client.
+     *
+     * @return the token
+     */
+    public String encode() {
+        String key = eventDate == null
+                ? Long.toString(id)
+                : eventDate + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the event date of the cursor, failing for cursors of
+     * listings ordered by ID only.
+     *
+     * @return the event date
+     * @throws BadRequestException if the cursor has no event date
+     */
+    public LocalDateTime requireEventDate() {
+        if (eventDate == null) {
+            throw new BadRequestException(
+                    "Cursor does not belong to this listing");
+        }
+        return eventDate;
+    }
+}
@@ -0,0 +1,78 @@
+package ru.practicum.explorewithme.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a cursor-paginated listing.
+ *
+ * @param <T> the type of the rows
+ */
+@Getter
+@AllArgsConstructor
+public class CursorSlice<T> {
+    /**
+     * Response header carrying the cursor of the next page.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    /**
+     * The rows of the page.
+     */
+    private final List<T> content;
+
+    /**
+     * The token of the next page, null on the last page.
+     */
+    private final String nextCursor;
+
+    /**
+     * Builds a page from rows fetched with a limit of one more than the
+     * page size; the extra row only tells that a next page exists.
+     *
+     * @param rows     the fetched rows
+     * @param size     the page size
+     * @param cursorOf the cursor of a row
+     * @param <T>      the type of the rows
+     * @return the page
+     */
+    public static <T> CursorSlice<T> of(final List<T> rows, final int size,
+                                        final Function<T, Cursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorSlice<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        return new CursorSlice<>(content,
+                cursorOf.apply(content.get(size - 1)).encode());
+    }
+
+    /**
+     * Maps the rows of the page.
+     *
+     * @param mapper the row mapper
+     * @param <R>    the type of the mapped rows
+     * @return the page of mapped rows
+     */
+    public <R> CursorSlice<R> map(final Function<T, R> mapper) {
+        return new CursorSlice<>(content.stream().map(mapper).toList(),
+                nextCursor);
+    }
+
+    /**
+     * Builds the response of the page: the rows as body and the next
+     * cursor, if any, in the {@value #NEXT_CURSOR_HEADER} header.
+     *
+     * @return the response entity
+     */
+    public ResponseEntity<List<T>> toResponseEntity() {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (nextCursor != null) {
+            builder.header(NEXT_CURSOR_HEADER, nextCursor);
+        }
+        return builder.body(content);
+    }
+}
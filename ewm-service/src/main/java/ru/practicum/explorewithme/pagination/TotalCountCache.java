@@ -0,0 +1,51 @@
+package ru.practicum.explorewithme.pagination;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Cache of the total numbers of rows of filtered listings, for clients
+ * that ask for a total. Totals are counted at most once per
+ * {@code expire-after} for the same filter, so they may lag behind the
+ * listing by that age.
+ */
+@Component
+public class TotalCountCache {
+    /**
+     * Response header carrying the approximate total.
+     */
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    /**
+     * Totals by filter.
+     */
+    private final Cache<Object, Long> cache;
+
+    /**
+     * Creates the cache.
+     *
+     * @param properties cache settings
+     */
+    public TotalCountCache(final TotalCountProperties properties) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfter())
+                .build();
+    }
+
+    /**
+     * Returns the cached total of a filter, counting it when it is not
+     * cached.
+     *
+     * @param filter  the filter, must be an immutable value with equals
+     *                and hashCode
+     * @param counter counts the rows matching the filter
+     * @return the total
+     */
+    public long get(final Object filter, final LongSupplier counter) {
+        return cache.get(filter, key -> counter.getAsLong());
+    }
+}
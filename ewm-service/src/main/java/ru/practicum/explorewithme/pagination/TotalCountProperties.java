@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.pagination;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the cache of listing totals.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.total-count")
+public class TotalCountProperties {
+    /**
+     * Default maximum number of cached totals.
+     */
+    private static final int DEFAULT_MAXIMUM_SIZE = 10_000;
+
+    /**
+     * Maximum number of cached totals.
+     */
+    private int maximumSize = DEFAULT_MAXIMUM_SIZE;
+
+    /**
+     * Age after which a total is counted again.
+     */
+    private Duration expireAfter = Duration.ofSeconds(30);
+}
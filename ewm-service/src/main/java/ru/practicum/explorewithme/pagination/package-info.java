@@ -0,0 +1,5 @@
+/**
+ * This package contains the cursor (keyset) pagination shared by the
+ * listings of the ExploreWithMe application.
+ */
+package ru.practicum.explorewithme.pagination;
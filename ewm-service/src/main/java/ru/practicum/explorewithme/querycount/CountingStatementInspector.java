@@ -0,0 +1,18 @@
+package ru.practicum.explorewithme.querycount;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Hibernate statement inspector that counts every prepared statement
+ * in the {@link QueryCounter} without changing it.
+ */
+public class CountingStatementInspector implements StatementInspector {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String inspect(final String sql) {
+        QueryCounter.increment();
+        return sql;
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.explorewithme.querycount;
+
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Registers the statement counter with Hibernate and the budget check
+ * with Spring MVC.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ewm.query-budget", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+public class QueryBudgetConfig implements WebMvcConfigurer {
+    /**
+     * Budget settings.
+     */
+    private final QueryBudgetProperties properties;
+
+    /**
+     * Installs the counting statement inspector.
+     *
+     * @return the Hibernate properties customizer
+     */
+    @Bean
+    public HibernatePropertiesCustomizer countingStatementInspector() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR,
+                new CountingStatementInspector());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(new QueryBudgetInterceptor(properties));
+    }
+}
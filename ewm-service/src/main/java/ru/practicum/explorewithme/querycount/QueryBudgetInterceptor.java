@@ -0,0 +1,52 @@
+package ru.practicum.explorewithme.querycount;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Counts the SQL statements of every request and reports the requests
+ * that exceed the configured budget. The response may already be
+ * written when the count is known, so requests are only logged; the
+ * budget of the event listings is enforced by their tests.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class QueryBudgetInterceptor implements HandlerInterceptor {
+    /**
+     * Budget settings.
+     */
+    private final QueryBudgetProperties properties;
+
+    /**
+     * Starts counting the statements of the request.
+     */
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler) {
+        QueryCounter.start();
+        return true;
+    }
+
+    /**
+     * Stops counting and logs the request when it exceeded the budget.
+     */
+    @Override
+    public void afterCompletion(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final Object handler,
+                                final Exception ex) {
+        int counted = QueryCounter.stop();
+        if (counted > properties.getMaxStatements()) {
+            log.warn("{} {} executed {} SQL statements, budget: {}",
+                    request.getMethod(), request.getRequestURI(), counted,
+                    properties.getMaxStatements());
+        } else {
+            log.debug("{} {} executed {} SQL statements",
+                    request.getMethod(), request.getRequestURI(), counted);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.explorewithme.querycount;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the per-request SQL statement budget.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.query-budget")
+public class QueryBudgetProperties {
+    /**
+     * Default maximum number of statements per request.
+     */
+    private static final int DEFAULT_MAX_STATEMENTS = 10;
+
+    /**
+     * Whether statements are counted per request.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of statements a request may execute before
+     * it is reported.
+     */
+    private int maxStatements = DEFAULT_MAX_STATEMENTS;
+}
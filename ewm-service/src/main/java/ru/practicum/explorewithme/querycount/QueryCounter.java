@@ -0,0 +1,59 @@
+package ru.practicum.explorewithme.querycount;
+
+/**
+ * Counts the SQL statements prepared by Hibernate on the current thread.
+ * <p>
+ * Counting runs between {@link #start()} and {@link #stop()}; statements
+ * prepared outside of that window are not counted.
+ */
+public final class QueryCounter {
+    /**
+     * Statement count of the current thread, null when not counting.
+     */
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    /**
+     * Not instantiated.
+     */
+    private QueryCounter() {
+    }
+
+    /**
+     * Starts counting on the current thread from zero.
+     */
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on the current thread.
+     *
+     * @return the number of statements counted since {@link #start()}
+     */
+    public static int stop() {
+        int counted = count();
+        COUNT.remove();
+        return counted;
+    }
+
+    /**
+     * Returns the number of statements counted so far on the current
+     * thread.
+     *
+     * @return the number of statements, 0 when not counting
+     */
+    public static int count() {
+        int[] count = COUNT.get();
+        return count == null ? 0 : count[0];
+    }
+
+    /**
+     * Counts one statement when counting is active.
+     */
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the per-request SQL statement counter used to
+ * keep the number of statements of a request bounded.
+ */
+package ru.practicum.explorewithme.querycount;
@@ -15,6 +15,8 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.explorewithme.event.model.EventRequest;
 import ru.practicum.explorewithme.event.model.EventResponse;
+import ru.practicum.explorewithme.pagination.CursorSlice;
+import ru.practicum.explorewithme.pagination.TotalCountCache;
 import ru.practicum.explorewithme.user.model.EventSearchCriteriaForAdmin;
 import ru.practicum.explorewithme.user.service.admin.AdminEventService;
 
@@ -38,6 +40,13 @@ public class AdminEventController {
      * @param criteria search criteria for filtering events
      * @param from     index of the first result to retrieve (default 0)
      * @param size     maximum number of events to retrieve (default 10)
+     * @param cursor   optional cursor; when given, even empty, events
+     *                 follow the cursor in ID order instead of the offset
+     *                 and the next cursor is returned in the
+     *                 {@value CursorSlice#NEXT_CURSOR_HEADER} header
+     * @param withTotal whether to return the approximate number of matching
+     *                  events in the
+     *                  {@value TotalCountCache#TOTAL_COUNT_HEADER} header
      * @return ResponseEntity with a list of EventResponse objects
      */
     @GetMapping("/events")
@@ -46,9 +55,20 @@ public class AdminEventController {
             @PositiveOrZero @RequestParam(defaultValue = "0")
             final Integer from,
             @Positive @RequestParam(defaultValue = "10")
-            final Integer size) {
-        return ResponseEntity.ok(service.getEvents(
-                criteria, from, size));
+            final Integer size,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(defaultValue = "false") final boolean withTotal) {
+        ResponseEntity<List<EventResponse>> response = cursor != null
+                ? service.getEvents(criteria, cursor, size).toResponseEntity()
+                : ResponseEntity.ok(service.getEvents(criteria, from, size));
+        if (!withTotal) {
+            return response;
+        }
+        return ResponseEntity.ok()
+                .headers(response.getHeaders())
+                .header(TotalCountCache.TOTAL_COUNT_HEADER,
+                        String.valueOf(service.countEvents(criteria)))
+                .body(response.getBody());
     }
 
     /**
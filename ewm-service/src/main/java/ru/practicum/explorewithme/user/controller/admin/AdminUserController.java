@@ -14,11 +14,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 import ru.practicum.explorewithme.user.model.UserRequest;
 import ru.practicum.explorewithme.user.model.UserResponse;
 import ru.practicum.explorewithme.user.service.admin.AdminUserService;
 
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -53,13 +53,21 @@ public class AdminUserController {
      * @param ids  optional list of user IDs to filter results
      * @param from index of the first result to retrieve (default 0)
      * @param size maximum number of users to retrieve (default 10)
-     * @return ResponseEntity with a collection of UserResponse objects
+     * @param cursor optional cursor; when given, even empty, users follow
+     *               the cursor in ID order instead of the offset and the
+     *               next cursor is returned in the
+     *               {@value CursorSlice#NEXT_CURSOR_HEADER} header
+     * @return ResponseEntity with a list of UserResponse objects
      */
     @GetMapping("/users")
-    public ResponseEntity<Collection<UserResponse>> getUsersInformation(
+    public ResponseEntity<List<UserResponse>> getUsersInformation(
             @RequestParam(required = false) final List<Long> ids,
             @PositiveOrZero @RequestParam(defaultValue = "0") final int from,
-            @Positive @RequestParam(defaultValue = "10") final int size) {
+            @Positive @RequestParam(defaultValue = "10") final int size,
+            @RequestParam(required = false) final String cursor) {
+        if (cursor != null) {
+            return service.findPage(ids, cursor, size).toResponseEntity();
+        }
         if (ids != null && !ids.isEmpty()) {
             return ResponseEntity.ok(service.findByIds(ids, from, size));
         } else {
@@ -1,5 +1,6 @@
 package ru.practicum.explorewithme.user.model;
 
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.Setter;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -13,6 +14,7 @@ import java.util.List;
  */
 @Getter
 @Setter
+@EqualsAndHashCode
 public class EventSearchCriteriaForAdmin {
     /**
      * List of user IDs to filter events by.
@@ -1,8 +1,13 @@
 package ru.practicum.explorewithme.user.repository;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import ru.practicum.explorewithme.event.model.EventEntity;
+import ru.practicum.explorewithme.event.repository.EventRepositoryCustom;
 
 /**
  * Repository interface for accessing
@@ -14,7 +19,19 @@ import ru.practicum.explorewithme.event.model.EventEntity;
  */
 public interface AdminEventRepository
         extends JpaRepository<EventEntity, Long>,
-        JpaSpecificationExecutor<EventEntity> {
+        JpaSpecificationExecutor<EventEntity>, EventRepositoryCustom {
 
+    /**
+     * Finds a page of events matching the specification, together with
+     * their categories and initiators.
+     *
+     * @param spec     the specification
+     * @param pageable the pagination information
+     * @return a page of event entities
+     */
+    @Override
+    @EntityGraph(EventEntity.LISTING_GRAPH)
+    Page<EventEntity> findAll(Specification<EventEntity> spec,
+                              Pageable pageable);
 }
 
@@ -1,7 +1,8 @@
 package ru.practicum.explorewithme.user.repository;
 
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -21,12 +22,41 @@ public interface AdminUserRepository extends JpaRepository<UserEntity, Long> {
      *
      * @param ids      list of user IDs to search for
      * @param pageable pageable object for pagination
-     * @return a page of UserEntity objects that match the IDs
+     * @return a slice of UserEntity objects that match the IDs
      */
     @Query("SELECT u FROM UserEntity u WHERE u.id IN :ids")
-    Page<UserEntity> findByIdIn(
+    Slice<UserEntity> findByIdIn(
             @Param("ids") List<Long> ids, Pageable pageable);
 
+    /**
+     * Finds a page of users without counting all users.
+     *
+     * @param pageable pageable object for pagination
+     * @return a slice of UserEntity objects
+     */
+    Slice<UserEntity> findAllBy(Pageable pageable);
+
+    /**
+     * Finds the users following an ID in ID order.
+     *
+     * @param id    the ID to start after
+     * @param limit the maximum number of users
+     * @return the users
+     */
+    List<UserEntity> findByIdGreaterThanOrderById(Long id, Limit limit);
+
+    /**
+     * Finds the users with the given IDs following an ID in ID order.
+     *
+     * @param ids   list of user IDs to search for
+     * @param id    the ID to start after
+     * @param limit the maximum number of users
+     * @return the users
+     */
+    List<UserEntity> findByIdInAndIdGreaterThanOrderById(List<Long> ids,
+                                                         Long id,
+                                                         Limit limit);
+
     /**
      * For ExistChecker.
      * @param email user email
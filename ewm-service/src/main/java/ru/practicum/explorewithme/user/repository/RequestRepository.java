@@ -11,7 +11,8 @@ import java.util.Optional;
  * Provides methods to query and manipulate user event request data.
  */
 public interface RequestRepository
-        extends JpaRepository<UserEventRequestEntity, Long> {
+        extends JpaRepository<UserEventRequestEntity, Long>,
+        RequestRepositoryCustom {
 
     /**
      * Finds all user event requests associated with a specific event ID.
@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.user.repository;
+
+import ru.practicum.explorewithme.user.request.model.RequestStatus;
+import ru.practicum.explorewithme.user.request.model.UserEventRequestDto;
+
+import java.util.List;
+
+/**
+ * Custom queries for user event request entities.
+ */
+public interface RequestRepositoryCustom {
+
+    /**
+     * Sets the status of the listed pending requests of an event with one
+     * statement, taking them in the order they were created.
+     *
+     * @param eventId    the ID of the event
+     * @param requestIds the IDs of the requests
+     * @param status     the new status
+     * @param limit      the maximum number of requests to update, or null
+     *                   for every listed request
+     * @return the updated requests ordered by ID
+     */
+    List<UserEventRequestDto> updatePendingStatus(Long eventId,
+                                                  List<Long> requestIds,
+                                                  RequestStatus status,
+                                                  Integer limit);
+}
@@ -0,0 +1,61 @@
+package ru.practicum.explorewithme.user.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import ru.practicum.explorewithme.user.request.model.RequestStatus;
+import ru.practicum.explorewithme.user.request.model.UserEventRequestDto;
+
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Implementation of the {@link RequestRepositoryCustom} interface.
+ */
+public class RequestRepositoryCustomImpl implements RequestRepositoryCustom {
+    /**
+     * Status update of the pending requests among the listed ones.
+     */
+    private static final String UPDATE_PENDING_SQL = "UPDATE requests "
+            + "SET status = :status WHERE id IN (SELECT id FROM requests "
+            + "WHERE id IN (:ids) AND event_id = :eventId "
+            + "AND status = 'PENDING' ORDER BY created, id LIMIT :limit) "
+            + "RETURNING id, created, user_id, status";
+
+    /**
+     * Entity manager.
+     */
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<UserEventRequestDto> updatePendingStatus(
+            final Long eventId, final List<Long> requestIds,
+            final RequestStatus status, final Integer limit) {
+        if (requestIds.isEmpty() || limit != null && limit <= 0) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager
+                .createNativeQuery(UPDATE_PENDING_SQL)
+                .setParameter("status", status.name())
+                .setParameter("ids", requestIds)
+                .setParameter("eventId", eventId)
+                .setParameter("limit",
+                        limit == null ? Long.MAX_VALUE : limit.longValue())
+                .getResultList();
+        return rows.stream()
+                .map(row -> UserEventRequestDto.builder()
+                        .id(((Number) row[0]).longValue())
+                        .created(((Timestamp) row[1]).toLocalDateTime())
+                        .event(eventId)
+                        .requester(((Number) row[2]).longValue())
+                        .status(RequestStatus.valueOf((String) row[3]))
+                        .build())
+                .sorted(Comparator.comparing(UserEventRequestDto::getId))
+                .toList();
+    }
+}
@@ -4,14 +4,19 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.category.model.CategoryRequest;
 import ru.practicum.explorewithme.category.model.CategoryResponse;
 import ru.practicum.explorewithme.category.model.mapper.CategoryMapper;
 import ru.practicum.explorewithme.category.repository.CategoryRepository;
+import ru.practicum.explorewithme.compilation.model.CompilationResponse;
+import ru.practicum.explorewithme.event.model.EventResponse;
 import ru.practicum.explorewithme.exception.ConflictException;
 import ru.practicum.explorewithme.exists.ExistChecker;
 
+import java.util.List;
+
 /**
  * Implementation of AdminCategoryService that handles category operations.
  */
@@ -27,6 +32,20 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
      * Checker.
      */
     private final ExistChecker checker;
+    /**
+     * Category listing pages.
+     */
+    private final ResponseCache<List<Integer>, List<CategoryResponse>>
+            categoryPageCache;
+    /**
+     * Published events by ID, which embed their category.
+     */
+    private final ResponseCache<Long, EventResponse> eventResponseCache;
+    /**
+     * Compilation listing pages, which embed event categories.
+     */
+    private final ResponseCache<List<Object>, List<CompilationResponse>>
+            compilationPageCache;
 
     /**
      * Deletes a category by its ID.
@@ -40,6 +59,7 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
         checker.isCategoryExists(catId);
         checker.isEventsContainsCategory(catId);
         repository.deleteById(catId);
+        categoryPageCache.clear();
         log.info("Deleted category with id: {}", catId);
 
     }
@@ -57,6 +77,7 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
         log.info("Creating category with name: {}", category.getName());
         CategoryEntity entity = repository.save(
                 CategoryMapper.toEntity(category));
+        categoryPageCache.clear();
         CategoryResponse response = CategoryMapper.toResponse(entity);
         log.info("Created category with id: {}", response.getId());
         return response;
@@ -84,6 +105,9 @@ public class AdminCategoryServiceImpl implements AdminCategoryService {
         }
         categoryEntity.setName(category.getName());
         CategoryEntity saved = repository.save(categoryEntity);
+        categoryPageCache.clear();
+        eventResponseCache.clear();
+        compilationPageCache.clear();
         CategoryResponse response = CategoryMapper.toResponse(saved);
         log.info("Updated category with id: {}", response.getId());
         return response;
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
 import ru.practicum.explorewithme.compilation.model.CompilationEntity;
 import ru.practicum.explorewithme.compilation.model.CompilationMapper;
 import ru.practicum.explorewithme.compilation.model.CompilationRequest;
@@ -33,6 +34,11 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
      * Service for handling event operations.
      */
     private final EventService eventService;
+    /**
+     * Compilation listing pages.
+     */
+    private final ResponseCache<List<Object>, List<CompilationResponse>>
+            compilationPageCache;
 
     /**
      * Creates a new compilation.
@@ -50,6 +56,7 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
                 .getEventEntities(request.getEvents());
         CompilationEntity entity = repository.save(
                 CompilationMapper.toEntity(request, eventEntities));
+        compilationPageCache.clear();
         CompilationResponse response = CompilationMapper.toResponse(entity);
         log.info("Sending response compilation title: {}",
                 response.getTitle());
@@ -71,6 +78,7 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
             throw new NotExistException("This compilation not exist");
         }
         repository.deleteById(compId);
+        compilationPageCache.clear();
         log.info("Deleted compilation with id: {}", compId);
     }
 
@@ -102,6 +110,7 @@ public class AdminCompilationServiceImpl implements AdminCompilationService {
             entity.getEvents().addAll(eventsByIds);
         }
         repository.save(entity);
+        compilationPageCache.clear();
         CompilationResponse response = CompilationMapper.toResponse(entity);
         log.info("Updated compilation with id: {}", response.getId());
         return response;
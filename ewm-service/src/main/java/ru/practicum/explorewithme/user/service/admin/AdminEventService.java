@@ -2,6 +2,7 @@ package ru.practicum.explorewithme.user.service.admin;
 
 import ru.practicum.explorewithme.event.model.EventRequest;
 import ru.practicum.explorewithme.event.model.EventResponse;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 import ru.practicum.explorewithme.user.model.EventSearchCriteriaForAdmin;
 
 import java.util.List;
@@ -22,6 +23,27 @@ public interface AdminEventService {
     List<EventResponse> getEvents(
             EventSearchCriteriaForAdmin criteria, Integer from, Integer size);
 
+    /**
+     * Retrieves a page of events based on search criteria in ID order
+     * after a cursor.
+     *
+     * @param criteria the search criteria for events
+     * @param cursor   the cursor of the page, blank for the first page
+     * @param size     the number of results to retrieve
+     * @return the page of event responses
+     */
+    CursorSlice<EventResponse> getEvents(
+            EventSearchCriteriaForAdmin criteria, String cursor, int size);
+
+    /**
+     * Counts the events matching search criteria. The count is cached
+     * for a short time and may lag behind the listing.
+     *
+     * @param criteria the search criteria for events
+     * @return the approximate number of matching events
+     */
+    long countEvents(EventSearchCriteriaForAdmin criteria);
+
     /**
      * Approves an event.
      *
@@ -31,5 +53,4 @@ public interface AdminEventService {
      */
     EventResponse approveEvent(EventRequest request, Long eventId);
 
-//    void warmUp();
 }
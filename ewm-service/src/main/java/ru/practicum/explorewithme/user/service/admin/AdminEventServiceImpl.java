@@ -1,16 +1,18 @@
 package ru.practicum.explorewithme.user.service.admin;
 
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
 import ru.practicum.explorewithme.category.repository.CategoryRepository;
+import ru.practicum.explorewithme.compilation.model.CompilationResponse;
 import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventRequest;
 import ru.practicum.explorewithme.event.model.EventResponse;
@@ -20,6 +22,9 @@ import ru.practicum.explorewithme.event.repository.EventRepository;
 import ru.practicum.explorewithme.event.specification.EventSpecification;
 import ru.practicum.explorewithme.exception.AlreadyExistException;
 import ru.practicum.explorewithme.exception.NotExistException;
+import ru.practicum.explorewithme.pagination.Cursor;
+import ru.practicum.explorewithme.pagination.CursorSlice;
+import ru.practicum.explorewithme.pagination.TotalCountCache;
 import ru.practicum.explorewithme.user.model.EventSearchCriteriaForAdmin;
 import ru.practicum.explorewithme.user.repository.AdminEventRepository;
 
@@ -51,18 +56,21 @@ public class AdminEventServiceImpl implements AdminEventService {
      */
     private final CategoryRepository categoryRepository;
 
-    @Transactional
-    private void warmUp() {
-        log.info("Warming up by fetching all events and counting.");
-        repository.findAll();
-        repository.count();
-    }
+    /**
+     * Cache of listing totals.
+     */
+    private final TotalCountCache totalCountCache;
 
-    @PostConstruct
-    public void init() {
-        log.info("AdminEventServiceImpl initialized and warming up.");
-        warmUp();
-    }
+    /**
+     * Published events by ID.
+     */
+    private final ResponseCache<Long, EventResponse> eventResponseCache;
+
+    /**
+     * Compilation listing pages, which embed published events.
+     */
+    private final ResponseCache<List<Object>, List<CompilationResponse>>
+            compilationPageCache;
 
     /**
      * Retrieves a list of events based on the provided criteria.
@@ -82,12 +90,59 @@ public class AdminEventServiceImpl implements AdminEventService {
             Pageable pageable = PageRequest.of(from / size, size);
             Specification<EventEntity> spec = buildSpecification(criteria);
 
-            Page<EventEntity> eventEntities = repository.findAll(spec, pageable);
+            Slice<EventEntity> eventEntities =
+                    repository.findSlice(spec, pageable);
         return eventEntities.stream()
                     .map(EventMapper::toResponse)
                     .collect(Collectors.toList());
     }
 
+    /**
+     * Retrieves a page of events based on the provided criteria in ID
+     * order after a cursor. The page is read with a seek condition on the
+     * primary key, so deep pages cost the same as the first one.
+     *
+     * @param criteria the search criteria for filtering events
+     * @param cursor   the cursor of the page, blank for the first page
+     * @param size     the size of the page
+     * @return the page of event responses matching the criteria
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<EventResponse> getEvents(
+            final EventSearchCriteriaForAdmin criteria,
+            final String cursor,
+            final int size) {
+        log.info("Fetching events after cursor: {}", cursor);
+        Specification<EventEntity> spec = buildSpecification(criteria);
+        Cursor after = Cursor.decode(cursor);
+        if (after != null) {
+            spec = spec.and(EventSpecification.afterId(after.getId()));
+        }
+        List<EventEntity> eventEntities = repository.findBy(spec, query ->
+                query.sortBy(Sort.by("id"))
+                        .project("category", "initiator")
+                        .limit(size + 1)
+                        .all());
+        return CursorSlice.of(eventEntities, size,
+                        entity -> Cursor.ofId(entity.getId()))
+                .map(EventMapper::toResponse);
+    }
+
+    /**
+     * Counts the events matching the provided criteria, caching the count
+     * for a short time.
+     *
+     * @param criteria the search criteria for filtering events
+     * @return the approximate number of matching events
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long countEvents(final EventSearchCriteriaForAdmin criteria) {
+        return totalCountCache.get(criteria, () ->
+                repository.count(buildSpecification(criteria)));
+    }
+
     /**
      * Approves an event by updating its details and state.
      *
@@ -107,6 +162,8 @@ public class AdminEventServiceImpl implements AdminEventService {
         validateEventState(event);
         updateEventDetails(request, event);
         eventRepository.save(event);
+        eventResponseCache.evict(eventId);
+        compilationPageCache.clear();
 
         log.info("Approved event with id: {}, and status {}",
                 eventId, event.getState());
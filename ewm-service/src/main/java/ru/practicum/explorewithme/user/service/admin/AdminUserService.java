@@ -1,10 +1,10 @@
 package ru.practicum.explorewithme.user.service.admin;
 
+import ru.practicum.explorewithme.pagination.CursorSlice;
 import ru.practicum.explorewithme.user.model.UserEntity;
 import ru.practicum.explorewithme.user.model.UserRequest;
 import ru.practicum.explorewithme.user.model.UserResponse;
 
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -26,18 +26,29 @@ public interface AdminUserService {
      * @param ids  the list of user IDs
      * @param from the starting index of the result
      * @param size the number of results to retrieve
-     * @return the collection of user responses
+     * @return the list of user responses
      */
-    Collection<UserResponse> findByIds(List<Long> ids, int from, int size);
+    List<UserResponse> findByIds(List<Long> ids, int from, int size);
 
     /**
      * Finds all users with pagination.
      *
      * @param from the starting index of the result
      * @param size the number of results to retrieve
-     * @return the collection of user responses
+     * @return the list of user responses
      */
-    Collection<UserResponse> findAll(int from, int size);
+    List<UserResponse> findAll(int from, int size);
+
+    /**
+     * Finds a page of users in ID order after a cursor.
+     *
+     * @param ids    the list of user IDs, null or empty for all users
+     * @param cursor the cursor of the page, blank for the first page
+     * @param size   the number of results to retrieve
+     * @return the page of user responses
+     */
+    CursorSlice<UserResponse> findPage(List<Long> ids, String cursor,
+                                       int size);
 
     /**
      * Deletes a user by their ID.
@@ -2,20 +2,23 @@ package ru.practicum.explorewithme.user.service.admin;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.exception.NotExistException;
 import ru.practicum.explorewithme.exists.ExistChecker;
+import ru.practicum.explorewithme.exists.RequestLookupCache;
+import ru.practicum.explorewithme.pagination.Cursor;
+import ru.practicum.explorewithme.pagination.CursorSlice;
 import ru.practicum.explorewithme.user.model.UserEntity;
 import ru.practicum.explorewithme.user.model.UserRequest;
 import ru.practicum.explorewithme.user.model.UserResponse;
 import ru.practicum.explorewithme.user.model.mapper.UserMapper;
 import ru.practicum.explorewithme.user.repository.AdminUserRepository;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -35,6 +38,10 @@ public class AdminUserServiceImpl implements AdminUserService {
      * Checker for user operations.
      */
     private final ExistChecker checker;
+    /**
+     * Entities looked up in the current request.
+     */
+    private final RequestLookupCache lookups;
 
     /**
      * {@inheritDoc}
@@ -55,13 +62,13 @@ public class AdminUserServiceImpl implements AdminUserService {
      */
     @Override
     @Transactional(readOnly = true)
-    public Collection<UserResponse> findByIds(final List<Long> ids,
-                                              final int from, final int size) {
+    public List<UserResponse> findByIds(final List<Long> ids,
+                                        final int from, final int size) {
         log.info("Finding users by IDs: {}, from: {}, size: {}", ids, from,
                 size);
         Pageable pageable = PageRequest.of(from / size, size);
-        Page<UserEntity> userEntities = repository.findByIdIn(ids, pageable);
-        Collection<UserResponse> response = userEntities.stream()
+        Slice<UserEntity> userEntities = repository.findByIdIn(ids, pageable);
+        List<UserResponse> response = userEntities.stream()
                 .map(UserMapper::toResponse)
                 .collect(Collectors.toList());
         log.info("Found {} users", response.size());
@@ -73,17 +80,41 @@ public class AdminUserServiceImpl implements AdminUserService {
      */
     @Override
     @Transactional(readOnly = true)
-    public Collection<UserResponse> findAll(final int from, final int size) {
+    public List<UserResponse> findAll(final int from, final int size) {
         log.info("Finding all users from: {}, size: {}", from, size);
         Pageable pageable = PageRequest.of(from / size, size);
-        Page<UserEntity> userEntities = repository.findAll(pageable);
-        Collection<UserResponse> response = userEntities.stream()
+        Slice<UserEntity> userEntities = repository.findAllBy(pageable);
+        List<UserResponse> response = userEntities.stream()
                 .map(UserMapper::toResponse)
                 .collect(Collectors.toList());
         log.info("Found {} users", response.size());
         return response;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public CursorSlice<UserResponse> findPage(final List<Long> ids,
+                                              final String cursor,
+                                              final int size) {
+        log.info("Finding users by IDs: {}, after cursor: {}, size: {}",
+                ids, cursor, size);
+        Cursor after = Cursor.decode(cursor);
+        long afterId = after == null ? 0 : after.getId();
+        Limit limit = Limit.of(size + 1);
+        List<UserEntity> userEntities = ids == null || ids.isEmpty()
+                ? repository.findByIdGreaterThanOrderById(afterId, limit)
+                : repository.findByIdInAndIdGreaterThanOrderById(ids,
+                        afterId, limit);
+        CursorSlice<UserResponse> response = CursorSlice.of(userEntities,
+                        size, entity -> Cursor.ofId(entity.getId()))
+                .map(UserMapper::toResponse);
+        log.info("Found {} users", response.getContent().size());
+        return response;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -107,7 +138,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Transactional(readOnly = true)
     public UserResponse findById(final Long userId) {
         log.info("Finding user by ID: {}", userId);
-        UserEntity userEntity = repository.findById(userId)
+        UserEntity userEntity = lookups.find(UserEntity.class, userId,
+                        () -> repository.findById(userId))
                 .orElseThrow(() -> {
                     log.error("User with ID {} does not exist", userId);
                     return new NotExistException("User does not exist");
@@ -123,7 +155,8 @@ public class AdminUserServiceImpl implements AdminUserService {
     @Transactional(readOnly = true)
     public UserEntity findUserEntity(final Long userId) {
         log.info("Finding user entity by ID: {}", userId);
-        return repository.findById(userId)
+        return lookups.find(UserEntity.class, userId,
+                        () -> repository.findById(userId))
                 .orElseThrow(() -> {
                     log.info("User with ID {} does not exist", userId);
                     return new NotExistException("User does not exist");
@@ -2,9 +2,9 @@ package ru.practicum.explorewithme.user.service.privateuser;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.explorewithme.category.model.CategoryEntity;
@@ -61,7 +61,7 @@ public class PrivateUserEventsServiceImpl implements PrivateUserEventsService {
                 from, size);
         checker.isUserExist(userId);
         Pageable pageable = PageRequest.of(from / size, size);
-        Page<EventEntity> eventEntities = repository
+        Slice<EventEntity> eventEntities = repository
                 .findAllByInitiatorId(userId, pageable)
                 .orElseThrow(() -> new NotExistException(
                         "This user does not have events"));
@@ -3,17 +3,20 @@ package ru.practicum.explorewithme.user.service.privateuser;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.explorewithme.cache.ResponseCache;
+import ru.practicum.explorewithme.compilation.model.CompilationResponse;
 import ru.practicum.explorewithme.event.model.EventEntity;
 import ru.practicum.explorewithme.event.model.EventResponse;
 import ru.practicum.explorewithme.event.model.EventStatus;
 import ru.practicum.explorewithme.event.repository.EventRepository;
 import ru.practicum.explorewithme.event.service.EventService;
 import ru.practicum.explorewithme.exception.AlreadyExistException;
+import ru.practicum.explorewithme.exception.BadRequestException;
 import ru.practicum.explorewithme.exception.ConflictException;
 import ru.practicum.explorewithme.exception.NotExistException;
 import ru.practicum.explorewithme.exists.ExistChecker;
+import ru.practicum.explorewithme.exists.RequestLookupCache;
 import ru.practicum.explorewithme.user.model.UserEntity;
 import ru.practicum.explorewithme.user.repository.RequestRepository;
 import ru.practicum.explorewithme.user.request.model.ApproveRequestCriteria;
@@ -25,7 +28,6 @@ import ru.practicum.explorewithme.user.request.model.UserEventRequestEntity;
 import ru.practicum.explorewithme.user.service.admin.AdminUserService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -44,6 +46,10 @@ public class PrivateUserRequestServiceImpl
     private final EventRepository eventRepository;
     private final AdminUserService adminUserService;
     private final ExistChecker checker;
+    private final RequestLookupCache lookups;
+    private final ResponseCache<Long, EventResponse> eventResponseCache;
+    private final ResponseCache<List<Object>, List<CompilationResponse>>
+            compilationPageCache;
 
     @Override
     public List<UserEventRequestDto> getEventRequests(
@@ -53,7 +59,11 @@ public class PrivateUserRequestServiceImpl
         checker.isEventExists(eventId);
         checker.isUserExist(userId);
 
-        EventResponse event = eventService.getEvent(eventId);
+        // Requests are listed for published events only.
+        EventEntity event = eventService.getEventEntity(eventId);
+        if (event.getState() != EventStatus.PUBLISHED) {
+            throw new NotExistException("This event does not exist");
+        }
         if (event.getInitiator().getId().equals(userId)) {
             return repository.findAllByEventId(eventId)
                     .orElseThrow(() -> new NotExistException(
@@ -72,33 +82,40 @@ public class PrivateUserRequestServiceImpl
             final ApproveRequestCriteria criteria) {
         log.info("Approving requests for event ID: {} by user ID: {} " +
                 "with criteria: {}", eventId, userId, criteria);
-            EventEntity event = approveRequestValidation(userId, eventId);
-
-            List<UserEventRequestEntity> requests = repository.findAllById(
-                    criteria.getRequestIds());
-
-            List<UserEventRequestDto> confirmedRequests = new ArrayList<>();
-            List<UserEventRequestDto> rejectedRequests = new ArrayList<>();
-
-            for (UserEventRequestEntity request : requests) {
-                updateRequestStatus(request, criteria.getStatus(), event);
-                UserEventRequestDto dto = UserEvenRequestMapper.toDto(request);
-                if (RequestStatus.CONFIRMED.equals(
-                        dto.getStatus())) {
-                    confirmedRequests.add(dto);
-                } else if (RequestStatus.REJECTED.equals(
-                        dto.getStatus())) {
-                    rejectedRequests.add(dto);
-                }
+        approveRequestValidation(userId, eventId);
+        RequestStatus status = toModerationStatus(criteria.getStatus());
+        List<Long> requestIds = criteria.getRequestIds().stream()
+                .distinct()
+                .toList();
+
+        List<UserEventRequestDto> confirmedRequests = List.of();
+        if (status == RequestStatus.CONFIRMED) {
+            // The event row stays locked until commit, so that requests
+            // admitted concurrently cannot take the same places.
+            Integer freePlaces = eventRepository.lockFreePlaces(eventId);
+            confirmedRequests = repository.updatePendingStatus(eventId,
+                    requestIds, RequestStatus.CONFIRMED, freePlaces);
+            if (!confirmedRequests.isEmpty()) {
+                eventRepository.addConfirmedRequests(eventId,
+                        confirmedRequests.size());
+                evictConfirmedRequests(eventId);
             }
-            log.info("Confirmed requests: {}", event.getConfirmedRequests());
-//        eventRepository.save(event);
-
-            return EventRequestStatusUpdateResult.builder()
-                    .confirmedRequests(confirmedRequests)
-                    .rejectedRequests(rejectedRequests)
-                    .build();
         }
+        List<UserEventRequestDto> rejectedRequests =
+                repository.updatePendingStatus(eventId, requestIds,
+                        RequestStatus.REJECTED, null);
+        if (confirmedRequests.size() + rejectedRequests.size()
+                < requestIds.size()) {
+            throw new ConflictException("Request must have status PENDING");
+        }
+        log.info("Confirmed {} and rejected {} requests for event ID: {}",
+                confirmedRequests.size(), rejectedRequests.size(), eventId);
+
+        return EventRequestStatusUpdateResult.builder()
+                .confirmedRequests(confirmedRequests)
+                .rejectedRequests(rejectedRequests)
+                .build();
+    }
 
     @Override
     public List<UserEventRequestDto> getUserRequests(final Long userId) {
@@ -110,7 +127,7 @@ public class PrivateUserRequestServiceImpl
     }
 
     @Override
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
+    @Transactional
     public UserEventRequestDto createRequest(final Long userId,
                                              final Long eventId) {
         log.info("Creating request for event ID: {} by user ID: {}",
@@ -132,23 +149,17 @@ public class PrivateUserRequestServiceImpl
                         .build();
         if (Boolean.FALSE.equals(event.getRequestModeration()) ||
                 event.getParticipantLimit() == 0) {
+            // The seat is taken before the request is saved; a failed
+            // save rolls the counter back with the transaction.
+            if (eventRepository.admitConfirmedRequest(eventId) == 0) {
+                throw new AlreadyExistException("Participants limit reached");
+            }
             eventRequestEntity.setStatus(RequestStatus.CONFIRMED);
+            evictConfirmedRequests(eventId);
         } else {
             eventRequestEntity.setStatus(RequestStatus.PENDING);
         }
         UserEventRequestEntity saved = repository.save(eventRequestEntity);
-        if (RequestStatus.CONFIRMED.equals(saved.getStatus())) {
-            event.getConfirmedRequests().add(saved);
-        }
-        eventRepository.save(event);
-        // Искусственная задержка
-        try {
-            log.info("Simulating delay...");
-            Thread.sleep(500);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.info("Thread was interrupted", e);
-        }
         log.info("Request created with ID: {} for event ID: {} by user ID: {}",
                 saved.getId(), eventId, userId);
         return UserEvenRequestMapper.toDto(saved);
@@ -161,8 +172,11 @@ public class PrivateUserRequestServiceImpl
         checker.isUserExist(userId);
         checker.isRequestExists(requestId);
 
-        UserEventRequestEntity entity = repository.findByIdAndRequesterId(
-                        requestId, userId)
+        UserEventRequestEntity entity = lookups.find(
+                        UserEventRequestEntity.class, requestId,
+                        () -> repository.findById(requestId))
+                .filter(request -> request.getRequester().getId()
+                        .equals(userId))
                 .orElseThrow(() -> new NotExistException(
                         "Request not found"));
 
@@ -178,20 +192,33 @@ public class PrivateUserRequestServiceImpl
         return UserEvenRequestMapper.toDto(entity);
     }
 
-    private void updateRequestStatus(final UserEventRequestEntity entity,
-                                     final String status,
-                                     final EventEntity event) {
-        RequestStatus requestStatus = RequestStatus.valueOf(
-                status.toUpperCase());
-        entity.setStatus(requestStatus);
+    /**
+     * Evicts the cached responses that show the confirmed requests of
+     * an event once the transaction commits: the event itself and the
+     * compilation pages, which embed it.
+     *
+     * @param eventId the event ID
+     */
+    private void evictConfirmedRequests(final Long eventId) {
+        eventResponseCache.evict(eventId);
+        compilationPageCache.clear();
+    }
 
-        if (requestStatus == RequestStatus.CONFIRMED) {
-            event.getConfirmedRequests().add(entity);
-        } else {
-            event.getConfirmedRequests().remove(entity);
+    /**
+     * Parses the status requested by the moderation of requests.
+     *
+     * @param status the status
+     * @return CONFIRMED or REJECTED
+     */
+    private RequestStatus toModerationStatus(final String status) {
+        String name = status.toUpperCase();
+        if (RequestStatus.CONFIRMED.name().equals(name)) {
+            return RequestStatus.CONFIRMED;
         }
-        repository.save(entity);
-        eventRepository.save(event);
+        if (RequestStatus.REJECTED.name().equals(name)) {
+            return RequestStatus.REJECTED;
+        }
+        throw new BadRequestException("Status must be CONFIRMED or REJECTED");
     }
 
     private EventEntity approveRequestValidation(
@@ -202,12 +229,8 @@ public class PrivateUserRequestServiceImpl
         EventEntity event = eventService.getEventEntity(eventId);
         log.info("Approving requests");
 
-        long confirmedCount = event.getConfirmedRequests().stream()
-                .filter(request -> request.getStatus() == RequestStatus.CONFIRMED)
-                .count();
-
         if (event.getParticipantLimit() != 0 &&
-                event.getParticipantLimit() <= confirmedCount) {
+                event.getParticipantLimit() <= event.getConfirmedRequests()) {
             throw new ConflictException("Participants limit reached");
         }
 
@@ -227,16 +250,12 @@ public class PrivateUserRequestServiceImpl
         log.info("Validating event for request creation with moderation: {}",
                 event.getRequestModeration());
 
-        long confirmedCount = event.getConfirmedRequests().stream()
-                .filter(request -> request.getStatus() == RequestStatus.CONFIRMED)
-                .count();
-
         if (event.getState() == EventStatus.PENDING) {
             throw new AlreadyExistException("This event is not published");
         }
 
         if (event.getParticipantLimit() != 0 &&
-                event.getParticipantLimit() <= confirmedCount) {
+                event.getParticipantLimit() <= event.getConfirmedRequests()) {
             throw new AlreadyExistException("Participants limit reached");
         }
     }
@@ -0,0 +1,106 @@
+package ru.practicum.explorewithme.warmup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.category.service.CategoryService;
+import ru.practicum.explorewithme.compilation.service.CompilationService;
+import ru.practicum.explorewithme.event.service.EventService;
+
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Preloads the response caches once the application is ready.
+ * <p>
+ * The warm-up runs on the task executor, so it neither delays startup
+ * nor the first requests, and every step is bounded by the settings.
+ * A failed step is logged and skipped: the caches fill on demand anyway.
+ */
+@Component
+@ConditionalOnProperty(prefix = "ewm.warm-up", name = "enabled",
+        havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmUp {
+    /**
+     * Warm-up settings.
+     */
+    private final WarmUpProperties properties;
+    /**
+     * Service for event operations.
+     */
+    private final EventService eventService;
+    /**
+     * Service for category operations.
+     */
+    private final CategoryService categoryService;
+    /**
+     * Service for compilation operations.
+     */
+    private final CompilationService compilationService;
+
+    /**
+     * Preloads upcoming events with their views and the leading
+     * category and pinned compilation pages.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.nanoTime();
+        int size = properties.getPageSize();
+        int events = step("events", () ->
+                eventService.preloadUpcomingEvents(properties.getEvents()));
+        int categories = step("categories", () ->
+                preloadPages(properties.getCategoryPages(), size, from ->
+                        categoryService.getCategories(from, size).size()));
+        int compilations = step("compilations", () ->
+                preloadPages(properties.getCompilationPages(), size, from ->
+                        compilationService.getCompilations(true, from, size)
+                                .size()));
+        log.info("Cache warm-up preloaded {} events, {} categories and {} "
+                        + "compilations in {} ms", events, categories,
+                compilations, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Loads leading listing pages, stopping after the last page.
+     *
+     * @param pages  the maximum number of pages
+     * @param size   the page size
+     * @param loader loads the page at an offset, returns its size
+     * @return the number of loaded items
+     */
+    private static int preloadPages(final int pages, final int size,
+                                    final IntUnaryOperator loader) {
+        int loaded = 0;
+        for (int page = 0; page < pages; page++) {
+            int count = loader.applyAsInt(page * size);
+            loaded += count;
+            if (count < size) {
+                break;
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Runs a warm-up step, logging its failure instead of propagating it.
+     *
+     * @param name the step name
+     * @param step the step, returns the number of loaded items
+     * @return the number of loaded items, zero if the step failed
+     */
+    private static int step(final String name, final IntSupplier step) {
+        try {
+            return step.getAsInt();
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up of {} failed", name, e);
+            return 0;
+        }
+    }
+}
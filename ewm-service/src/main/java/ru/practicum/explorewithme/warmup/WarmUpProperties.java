@@ -0,0 +1,46 @@
+package ru.practicum.explorewithme.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the cache warm-up after startup.
+ */
+@Data
+@ConfigurationProperties(prefix = "ewm.warm-up")
+public class WarmUpProperties {
+    /**
+     * Default number of preloaded upcoming events.
+     */
+    private static final int DEFAULT_EVENTS = 1_000;
+    /**
+     * Default size of a preloaded listing page.
+     */
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    /**
+     * Whether the caches are preloaded after startup.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum number of upcoming published events to preload.
+     */
+    private int events = DEFAULT_EVENTS;
+
+    /**
+     * Number of leading category listing pages to preload.
+     */
+    private int categoryPages = 1;
+
+    /**
+     * Number of leading pinned compilation listing pages to preload.
+     */
+    private int compilationPages = 1;
+
+    /**
+     * Size of a preloaded listing page, the default page size of
+     * the public endpoints.
+     */
+    private int pageSize = DEFAULT_PAGE_SIZE;
+}
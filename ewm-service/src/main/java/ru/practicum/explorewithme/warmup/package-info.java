@@ -0,0 +1,5 @@
+/**
+ * This package contains the background preloading of the response
+ * caches of the ExploreWithMe application after startup.
+ */
+package ru.practicum.explorewithme.warmup;
@@ -58,3 +58,19 @@ CREATE TABLE IF NOT EXISTS compilation_events (
     FOREIGN KEY (compilation_id) REFERENCES compilations(id),
     FOREIGN KEY (event_id) REFERENCES events(id)
 );
+
+-- Maintained counter of confirmed requests, backfilled once for events
+-- created before the column existed
+ALTER TABLE events ADD COLUMN IF NOT EXISTS confirmed_requests INT;
+UPDATE events e SET confirmed_requests = (
+    SELECT COUNT(*) FROM requests r
+    WHERE r.event_id = e.id AND r.status = 'CONFIRMED'
+) WHERE e.confirmed_requests IS NULL;
+ALTER TABLE events ALTER COLUMN confirmed_requests SET DEFAULT 0;
+ALTER TABLE events ALTER COLUMN confirmed_requests SET NOT NULL;
+
+-- Full-text index over event texts, the expression must stay identical
+-- to the document of FullTextFunctionContributor
+CREATE INDEX IF NOT EXISTS idx_event_text_search ON events USING GIN ((
+    setweight(to_tsvector('simple', coalesce(annotation, '')), 'A') ||
+    setweight(to_tsvector('simple', coalesce(description, '')), 'B')));
@@ -0,0 +1,144 @@
+package ru.practicum.explorewithme.querycount;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import ru.practicum.explorewithme.category.model.CategoryEntity;
+import ru.practicum.explorewithme.category.repository.CategoryRepository;
+import ru.practicum.explorewithme.client.StatisticClient;
+import ru.practicum.explorewithme.event.model.EventEntity;
+import ru.practicum.explorewithme.event.model.EventStatus;
+import ru.practicum.explorewithme.event.repository.EventRepository;
+import ru.practicum.explorewithme.user.model.UserEntity;
+import ru.practicum.explorewithme.user.repository.AdminUserRepository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that event listings execute the same number of SQL statements
+ * whatever their page size, and stay within the statement budget.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ListingQueryBudgetTest {
+    /**
+     * Number of events, half of them of one initiator, which is still
+     * more than the largest page.
+     */
+    private static final int EVENTS = 45;
+    /**
+     * Small page size.
+     */
+    private static final int SMALL_PAGE = 2;
+    /**
+     * Large page size.
+     */
+    private static final int LARGE_PAGE = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private QueryBudgetProperties budget;
+    @Autowired
+    private AdminUserRepository userRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private EventRepository eventRepository;
+    @MockBean
+    private StatisticClient statisticClient;
+
+    private Long initiatorId;
+
+    @BeforeEach
+    void setUp() {
+        when(statisticClient.getEventViews(any()))
+                .thenReturn(Mono.just(Map.of()));
+        when(statisticClient.sendStats(any())).thenReturn(Mono.empty());
+        when(statisticClient.sendStatsBatch(any())).thenReturn(Mono.empty());
+        eventRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+        // Every event gets its own initiator and category, so that
+        // loading them one by one would show in the statement count.
+        UserEntity initiator = null;
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < EVENTS; i++) {
+            UserEntity user = userRepository.save(UserEntity.builder()
+                    .name("user" + i).email("user" + i + "@mail.ru").build());
+            CategoryEntity category = categoryRepository.save(
+                    CategoryEntity.builder().name("category" + i).build());
+            if (initiator == null) {
+                initiator = user;
+            }
+            eventRepository.save(EventEntity.builder()
+                    .title("event" + i)
+                    .annotation("annotation of event " + i)
+                    .description("description of event " + i)
+                    .createdOn(now)
+                    .publishedOn(now)
+                    .eventDate(now.plusDays(i + 1))
+                    .paid(false)
+                    .participantLimit(0)
+                    .requestModeration(false)
+                    .state(EventStatus.PUBLISHED)
+                    .category(category)
+                    .initiator(i % 2 == 0 ? initiator : user)
+                    .build());
+        }
+        initiatorId = initiator.getId();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"/events", "/admin/events", "/users/{id}/events"})
+    void statementCountDoesNotGrowWithPageSize(final String path)
+            throws Exception {
+        String uri = path.replace("{id}", String.valueOf(initiatorId));
+        count(uri, SMALL_PAGE);
+
+        long small = count(uri, SMALL_PAGE);
+        long large = count(uri, LARGE_PAGE);
+
+        assertThat(small).as("statements of %s", uri).isPositive();
+        assertThat(large).as("statements of %s", uri).isEqualTo(small);
+        assertThat(large).as("statements of %s", uri)
+                .isLessThanOrEqualTo(budget.getMaxStatements());
+    }
+
+    /**
+     * Requests a page and counts the statements it prepared.
+     *
+     * @param uri  the listing URI
+     * @param size the page size
+     * @return the number of prepared statements
+     * @throws Exception if the request fails
+     */
+    private long count(final String uri, final int size) throws Exception {
+        Statistics statistics = entityManagerFactory
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        mockMvc.perform(get(uri).param("size", String.valueOf(size)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(size));
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,239 @@
+package ru.practicum.explorewithme.client;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import ru.practicum.explorewithme.StatisticRequest;
+import ru.practicum.explorewithme.config.StatisticBatchProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Coalesces hits in a bounded local buffer and sends them to the
+ * statistics service in batches when a batch is full or the flush
+ * interval elapses. Enabled with {@code stats.client.batch.enabled}.
+ * Pending hits are sent when the application stops.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.client.batch", name = "enabled",
+        havingValue = "true")
+@EnableConfigurationProperties(StatisticBatchProperties.class)
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticBatcher implements SmartLifecycle {
+    /**
+     * Statistics client.
+     */
+    private final StatisticClient client;
+    /**
+     * Batching settings.
+     */
+    private final StatisticBatchProperties properties;
+    /**
+     * Serializes sends.
+     */
+    private final ReentrantLock sendLock = new ReentrantLock();
+    /**
+     * Whether a size-triggered send is already scheduled.
+     */
+    private final AtomicBoolean sendScheduled = new AtomicBoolean();
+    /**
+     * Number of hits dropped because the buffer was full or the
+     * statistics service rejected them.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * Pending hits.
+     */
+    private volatile BlockingQueue<StatisticRequest> queue;
+    /**
+     * Background sender.
+     */
+    private volatile ScheduledExecutorService sender;
+    /**
+     * Whether the batcher accepts hits.
+     */
+    private volatile boolean running;
+
+    /**
+     * Accepts a hit for sending. Sends it immediately when the batcher
+     * is not running; drops it when the buffer is full.
+     *
+     * @param hit the hit
+     */
+    public void record(final StatisticRequest hit) {
+        if (!running) {
+            client.sendStats(hit).subscribe();
+            return;
+        }
+        if (!queue.offer(hit)) {
+            long total = dropped.incrementAndGet();
+            log.warn("Stats buffer is full, hit dropped, total dropped: {}",
+                    total);
+            return;
+        }
+        if (queue.size() >= properties.getBatchSize()
+                && sendScheduled.compareAndSet(false, true)) {
+            sender.execute(() -> {
+                sendScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Sends every pending hit.
+     */
+    public void flush() {
+        BlockingQueue<StatisticRequest> pending = queue;
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        sendLock.lock();
+        try {
+            int batchSize = Math.max(1, properties.getBatchSize());
+            List<StatisticRequest> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                send(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pending hits.
+     *
+     * @return the number of pending hits
+     */
+    public int pending() {
+        BlockingQueue<StatisticRequest> pending = queue;
+        return pending == null ? 0 : pending.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        sender = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        sender.scheduleWithFixedDelay(this::flushQuietly,
+                interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Stats batcher started, capacity: {}, batch size: {}, "
+                        + "flush interval: {}", properties.getCapacity(),
+                properties.getBatchSize(), properties.getFlushInterval());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        sender.shutdown();
+        try {
+            if (!sender.awaitTermination(
+                    properties.getSendTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS)) {
+                log.warn("Stats sender did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Sending {} pending hits", pending());
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Failed to send pending hits, lost: {}", pending(), e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Sends a batch. A batch that failed because the statistics service
+     * is unavailable is put back into the buffer so that it is retried
+     * by the next flush; a batch the service rejected would be rejected
+     * again and is dropped instead.
+     *
+     * @param batch the batch
+     */
+    private void send(final List<StatisticRequest> batch) {
+        try {
+            client.sendStatsBatch(batch).block(properties.getSendTimeout());
+            log.debug("Sent {} hits", batch.size());
+        } catch (RuntimeException e) {
+            if (!isRetryable(e)) {
+                long total = dropped.addAndGet(batch.size());
+                log.error("Stats service rejected {} hits, dropped, "
+                        + "total dropped: {}", batch.size(), total, e);
+                return;
+            }
+            int requeued = 0;
+            for (StatisticRequest hit : batch) {
+                if (queue.offer(hit)) {
+                    requeued++;
+                }
+            }
+            log.error("Failed to send {} hits, requeued: {}",
+                    batch.size(), requeued, e);
+            throw e;
+        }
+    }
+
+    /**
+     * Returns whether a failed send may succeed when retried: on server
+     * errors, I/O errors and timeouts.
+     *
+     * @param e the failure
+     * @return true if the batch should be retried
+     */
+    private static boolean isRetryable(final RuntimeException e) {
+        if (e instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError();
+        }
+        return e instanceof WebClientRequestException
+                || e.getCause() instanceof TimeoutException;
+    }
+
+    /**
+     * Sends and logs failures instead of propagating them,
+     * so that the scheduled sender keeps running.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.debug("Scheduled send failed", e);
+        }
+    }
+}
@@ -49,8 +49,28 @@ public class StatisticClient {
                 .onStatus(HttpStatusCode::isError, clientResponse -> {
                     log.info("Error sending stats: {}", clientResponse
                             .statusCode());
-                    return Mono.error(new RuntimeException("Failed to send "
-                            + "stats"));
+                    return clientResponse.createException();
+                })
+                .bodyToMono(Void.class);
+    }
+
+    /**
+     * Sends a batch of statistical data to the statistics service
+     * in one request.
+     *
+     * @param stats the StatisticRequest objects containing the data to
+     *              be sent.
+     * @return a Mono<Void> indicating completion or error.
+     */
+    public Mono<Void> sendStatsBatch(final List<StatisticRequest> stats) {
+        return webClient.post()
+                .uri("/hit/batch")
+                .bodyValue(stats)
+                .retrieve()
+                .onStatus(HttpStatusCode::isError, clientResponse -> {
+                    log.info("Error sending stats batch: {}", clientResponse
+                            .statusCode());
+                    return clientResponse.createException();
                 })
                 .bodyToMono(Void.class);
     }
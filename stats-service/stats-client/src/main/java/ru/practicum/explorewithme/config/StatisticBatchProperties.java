@@ -0,0 +1,48 @@
+package ru.practicum.explorewithme.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of client-side hit batching.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.client.batch")
+public class StatisticBatchProperties {
+    /**
+     * Default buffer capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10_000;
+    /**
+     * Default batch size.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 200;
+
+    /**
+     * Whether hits are coalesced and sent in batches.
+     */
+    private boolean enabled;
+
+    /**
+     * Maximum number of hits waiting to be sent. Hits that do not fit
+     * are dropped, so a slow statistics service never blocks callers.
+     */
+    private int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * Number of buffered hits that triggers a send.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Maximum time a hit waits in the buffer before being sent.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * Maximum time to wait for one batch to be accepted.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
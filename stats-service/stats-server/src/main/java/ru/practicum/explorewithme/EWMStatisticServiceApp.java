@@ -2,11 +2,13 @@ package ru.practicum.explorewithme;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 
 /**
  * Main application class for EWM Statistic Service.
  */
 @SpringBootApplication
+@ConfigurationPropertiesScan
 public class EWMStatisticServiceApp {
     protected EWMStatisticServiceApp() {
     }
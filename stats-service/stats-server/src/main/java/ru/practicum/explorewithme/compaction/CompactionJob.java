@@ -0,0 +1,147 @@
+package ru.practicum.explorewithme.compaction;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+import ru.practicum.explorewithme.partition.Partition;
+import ru.practicum.explorewithme.partition.PartitionRepository;
+import ru.practicum.explorewithme.rollup.Granularity;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Deletes raw hits older than {@code raw-retention}, every
+ * {@code check-interval}, in the background.
+ * <p>
+ * The raw horizon is moved first, so that readers stop using the raw
+ * hits before they are deleted. Partitions entirely before the horizon
+ * are dropped at once, the remaining hits are deleted in small batches
+ * with a pause in between, so that no lock is held for long. Starts
+ * after the rollup backfill, which needs every raw hit.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CompactionJob implements SmartLifecycle {
+    /**
+     * Compaction settings.
+     */
+    private final CompactionProperties properties;
+    /**
+     * Compaction repository.
+     */
+    private final CompactionRepository repository;
+    /**
+     * Partition repository.
+     */
+    private final PartitionRepository partitionRepository;
+    /**
+     * Runs the periodic compaction.
+     */
+    private volatile ScheduledExecutorService compactor;
+    /**
+     * Whether the job is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Compacts the raw hits past retention, if retention is set.
+     *
+     * @throws InterruptedException if interrupted between batches
+     */
+    public void compact() throws InterruptedException {
+        if (properties.getRawRetention() == null) {
+            return;
+        }
+        LocalDateTime horizon = Granularity.HOUR.floor(LocalDateTime.now()
+                .minus(properties.getRawRetention()));
+        repository.advanceHorizon(horizon);
+        for (Partition partition : partitionRepository.findPartitions()) {
+            if (!partition.getTo().isAfter(horizon)) {
+                repository.compact(partition);
+            }
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        long total = 0;
+        long deleted;
+        do {
+            deleted = repository.compactBatch(horizon, batchSize);
+            total += deleted;
+            if (deleted == batchSize) {
+                Thread.sleep(properties.getBatchPause().toMillis());
+            }
+        } while (deleted == batchSize && running);
+        log.info("Compacted raw hits before {}, deleted {} in batches",
+                horizon, total);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        running = true;
+        if (properties.getRawRetention() == null) {
+            return;
+        }
+        compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hit-compactor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly, 0,
+                properties.getCheckInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+        log.info("Raw hit compaction started, retention: {}",
+                properties.getRawRetention());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        if (compactor != null) {
+            compactor.shutdownNow();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return HitBuffer.PHASE;
+    }
+
+    /**
+     * Compacts and logs failures instead of propagating them,
+     * so that the scheduled compaction keeps running.
+     */
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Raw hit compaction failed", e);
+        }
+    }
+}
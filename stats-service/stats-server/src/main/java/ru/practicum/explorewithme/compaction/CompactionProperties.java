@@ -0,0 +1,39 @@
+package ru.practicum.explorewithme.compaction;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the retention of raw hits.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.compaction")
+public class CompactionProperties {
+    /**
+     * Default number of raw hits deleted per statement.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 5000;
+
+    /**
+     * Age after which raw hits are compacted, null to keep raw hits
+     * forever.
+     */
+    private Duration rawRetention;
+
+    /**
+     * Number of raw hits deleted per statement.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Pause between two delete statements.
+     */
+    private Duration batchPause = Duration.ofMillis(100);
+
+    /**
+     * Interval of compaction runs.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+}
@@ -0,0 +1,127 @@
+package ru.practicum.explorewithme.compaction;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.partition.Partition;
+import ru.practicum.explorewithme.partition.PartitionRepository;
+import ru.practicum.explorewithme.views.ViewCacheProperties;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Compacts old raw hits and keeps the raw horizon, the creation time
+ * before which raw hits may be gone.
+ * <p>
+ * Hit counts and visitor sketches of compacted hits already live in the
+ * rollups, which are written with the raw hits. Compaction only keeps
+ * the (uri, ip) pairs of URIs with few visitors in statistic_visitor,
+ * up to the exact limit of the view counters per URI, so that their
+ * all-time unique views stay exact while the table stays bounded per
+ * URI. Views of URIs with more visitors are estimated from their
+ * sketches.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CompactionRepository {
+    /**
+     * Copy of the visitors of the compacted hits of the URIs that have
+     * fewer kept visitors than the limit. A URI may exceed the limit by
+     * the visitors of one batch.
+     */
+    private static final String KEEP_VISITORS_SQL =
+            "INSERT INTO statistic_visitor (app_id, uri_id, ip) "
+                    + "SELECT DISTINCT ON (c.uri_id, c.ip) c.app_id, "
+                    + "c.uri_id, c.ip FROM %1$s c JOIN (SELECT u.uri_id "
+                    + "FROM (SELECT DISTINCT uri_id FROM %1$s) u "
+                    + "WHERE (SELECT count(*) FROM (SELECT 1 "
+                    + "FROM statistic_visitor v WHERE v.uri_id = u.uri_id "
+                    + "LIMIT ?) sample) < ?) open_uris "
+                    + "ON open_uris.uri_id = c.uri_id "
+                    + "ON CONFLICT DO NOTHING";
+    /**
+     * Delete of one batch of hits before the horizon, keeping their
+     * visitors, returning the number of deleted hits.
+     */
+    private static final String COMPACT_BATCH_SQL = "WITH deleted AS ("
+            + "DELETE FROM statistic WHERE creation_time < ? AND id IN "
+            + "(SELECT id FROM statistic WHERE creation_time < ? LIMIT ?) "
+            + "RETURNING app_id, uri_id, ip), kept AS ("
+            + String.format(KEEP_VISITORS_SQL, "deleted")
+            + ") SELECT COUNT(*) FROM deleted";
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Partition repository.
+     */
+    private final PartitionRepository partitionRepository;
+    /**
+     * View counter settings, for the number of visitors kept per URI.
+     */
+    private final ViewCacheProperties viewCacheProperties;
+
+    /**
+     * Returns the raw horizon.
+     *
+     * @return the horizon, or null when no raw hit has been compacted
+     */
+    public LocalDateTime findHorizon() {
+        List<Timestamp> horizon = jdbcTemplate.queryForList(
+                "SELECT raw_from FROM statistic_compaction", Timestamp.class);
+        return horizon.isEmpty() ? null : horizon.get(0).toLocalDateTime();
+    }
+
+    /**
+     * Moves the raw horizon forward. Never moves it back.
+     *
+     * @param horizon the new horizon
+     */
+    public void advanceHorizon(final LocalDateTime horizon) {
+        jdbcTemplate.update("INSERT INTO statistic_compaction (raw_from) "
+                + "VALUES (?) ON CONFLICT (id) DO UPDATE SET raw_from = "
+                + "GREATEST(statistic_compaction.raw_from, EXCLUDED.raw_from)",
+                Timestamp.valueOf(horizon));
+    }
+
+    /**
+     * Compacts a whole range partition: keeps its visitors of URIs with
+     * few visitors and drops it.
+     *
+     * @param partition the partition
+     */
+    @Transactional
+    public void compact(final Partition partition) {
+        jdbcTemplate.execute("LOCK TABLE " + partition.getName()
+                + " IN SHARE MODE");
+        int limit = viewCacheProperties.getExactLimit();
+        jdbcTemplate.update(String.format(KEEP_VISITORS_SQL,
+                partition.getName()), limit, limit);
+        partitionRepository.drop(partition);
+    }
+
+    /**
+     * Compacts one batch of hits before the horizon.
+     *
+     * @param horizon   the horizon
+     * @param batchSize the maximum number of hits
+     * @return the number of compacted hits
+     */
+    @Transactional
+    public long compactBatch(final LocalDateTime horizon,
+                             final int batchSize) {
+        Timestamp before = Timestamp.valueOf(horizon);
+        int limit = viewCacheProperties.getExactLimit();
+        Long deleted = jdbcTemplate.queryForObject(COMPACT_BATCH_SQL,
+                Long.class, before, before, batchSize, limit, limit);
+        return deleted == null ? 0 : deleted;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the retention and compaction of old raw hits
+ * of ExploreWithMe statistics.
+ */
+package ru.practicum.explorewithme.compaction;
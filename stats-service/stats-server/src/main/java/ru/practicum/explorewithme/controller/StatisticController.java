@@ -3,6 +3,7 @@ package ru.practicum.explorewithme.controller;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -25,6 +26,7 @@ import java.util.Map;
  * REST controller for managing statistics.
  */
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequiredArgsConstructor
 @Validated
 public class StatisticController {
@@ -46,6 +48,19 @@ public class StatisticController {
         return new ResponseEntity<>(HttpStatus.CREATED);
     }
 
+    /**
+     * Saves a batch of statistical data.
+     *
+     * @param requests the statistic requests containing data to be saved
+     * @return HttpStatus
+     */
+    @PostMapping("/hit/batch")
+    public ResponseEntity<Void> saveStatistics(@Valid @RequestBody
+                      final List<@Valid StatisticRequest> requests) {
+        service.saveStatistics(requests);
+        return new ResponseEntity<>(HttpStatus.CREATED);
+    }
+
     /**
      * Retrieves statistics based on query parameters.
      *
@@ -53,6 +68,10 @@ public class StatisticController {
      * @param end    the end date and time for the statistics
      * @param uris   the list of URIs to filter the statistics
      * @param unique whether to consider only unique hits
+     * @param approximate whether unique hits may be estimated
+     *                    with about 1% error, and hits before the raw
+     *                    horizon counted per whole minute; without it,
+     *                    such ranges are rejected
      * @return the list of statistic responses
      */
     @GetMapping("/stats")
@@ -66,24 +85,29 @@ public class StatisticController {
             @RequestParam(value = "uris", required = false)
             final List<String> uris,
             @RequestParam(value = "unique", defaultValue = "false")
-            final boolean unique) {
+            final boolean unique,
+            @RequestParam(value = "approximate", defaultValue = "false")
+            final boolean approximate) {
         if (!start.isBefore(end)) {
             throw new WrongTimeException(
                     "Start time must be before end time");
         }
-        return service.getStatistic(start, end, uris, unique);
+        return service.getStatistic(start, end, uris, unique, approximate);
     }
 
 /**
  * Retrieves statistics based on query parameters.
  *
  * @param uris   the list of URIs to filter the statistics
+ * @param approximate whether views may be estimated with about 1% error
  * @return map event views
  */
     @GetMapping("/views")
     public Map<Long, Long> getEventViews(
-            @NotNull @RequestParam("uris")final List<String> uris
+            @NotNull @RequestParam("uris")final List<String> uris,
+            @RequestParam(value = "approximate", defaultValue = "false")
+            final boolean approximate
     ) {
-       return service.getEventViews(uris);
+       return service.getEventViews(uris, approximate);
     }
 }
@@ -0,0 +1,33 @@
+package ru.practicum.explorewithme.dictionary;
+
+/**
+ * Dictionary of names referred to by id from the raw hits.
+ */
+public enum Dictionary {
+    /**
+     * Application names.
+     */
+    APP("statistic_app"),
+    /**
+     * Request URIs.
+     */
+    URI("statistic_uri");
+
+    /**
+     * Dictionary table.
+     */
+    private final String table;
+
+    Dictionary(final String table) {
+        this.table = table;
+    }
+
+    /**
+     * Returns the dictionary table.
+     *
+     * @return the table name
+     */
+    public String getTable() {
+        return table;
+    }
+}
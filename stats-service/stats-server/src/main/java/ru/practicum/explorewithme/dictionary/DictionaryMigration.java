@@ -0,0 +1,68 @@
+package ru.practicum.explorewithme.dictionary;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+
+/**
+ * Converts the hit tables that still store app and URI names into
+ * dictionary-encoded ones on startup. Starts before the partition
+ * manager, which copies an unpartitioned table in the encoded layout.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DictionaryMigration implements SmartLifecycle {
+    /**
+     * Dictionary repository.
+     */
+    private final DictionaryRepository repository;
+    /**
+     * Whether the migration has run.
+     */
+    private volatile boolean running;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        if (repository.hasNames("statistic")) {
+            log.info("Encoding the statistic table with dictionary ids");
+            repository.encode("statistic", null);
+        }
+        if (repository.hasNames("statistic_visitor")) {
+            repository.encode("statistic_visitor", "uri_id, ip");
+        }
+        running = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return HitBuffer.PHASE - 3;
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.explorewithme.dictionary;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.model.IpAddresses;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps app and URI names to their dictionary ids, adding missing names.
+ * <p>
+ * Ids never change, so every id read is cached. The cache of a
+ * dictionary is cleared when it grows past {@link #MAX_CACHED} names.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class DictionaryRepository {
+    /**
+     * Maximum number of cached names per dictionary.
+     */
+    private static final int MAX_CACHED = 100_000;
+    /**
+     * Binary form of a stored text IP, as produced by
+     * {@link IpAddresses#encode(String)}.
+     */
+    private static final String IP_TO_BYTES = "CASE WHEN ip ~ '"
+            + IpAddresses.IPV4_REGEX + "' THEN decode(lpad(to_hex("
+            + "ip::inet - '0.0.0.0'::inet), 8, '0'), 'hex') "
+            + "WHEN octet_length(ip) = 3 "
+            + "THEN '\\x0000'::bytea || convert_to(ip, 'UTF8') "
+            + "ELSE '\\x00'::bytea || convert_to(ip, 'UTF8') END";
+
+    /**
+     * JDBC template.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    /**
+     * Cached ids by name, per dictionary.
+     */
+    private final Map<Dictionary, Map<String, Integer>> cache =
+            new EnumMap<>(Map.of(
+                    Dictionary.APP, new ConcurrentHashMap<>(),
+                    Dictionary.URI, new ConcurrentHashMap<>()));
+
+    /**
+     * Joins the app and URI names to rows that refer to them by id.
+     *
+     * @param rows    a query returning app_id, uri_id and other columns
+     * @param columns the other columns to select, from the alias r
+     * @return the query returning app, uri and the other columns
+     */
+    public static String withNames(final String rows, final String columns) {
+        return "SELECT a.name AS app, u.name AS uri, " + columns
+                + " FROM (" + rows + ") r "
+                + "JOIN statistic_app a ON a.id = r.app_id "
+                + "JOIN statistic_uri u ON u.id = r.uri_id";
+    }
+
+    /**
+     * Builds a condition restricting uri_id to the URIs of a parameter.
+     *
+     * @param parameter the name of the parameter holding the URIs
+     * @return the SQL condition
+     */
+    public static String uriIdIn(final String parameter) {
+        return "uri_id IN (SELECT id FROM statistic_uri WHERE name IN (:"
+                + parameter + "))";
+    }
+
+    /**
+     * Returns whether a hit table still stores app and URI names.
+     *
+     * @param table the hit table
+     * @return true if it has to be encoded
+     */
+    public boolean hasNames(final String table) {
+        Boolean names = jdbcTemplate.queryForObject("SELECT EXISTS "
+                + "(SELECT 1 FROM information_schema.columns "
+                + "WHERE table_schema = current_schema() "
+                + "AND table_name = :table AND column_name = 'uri')",
+                new MapSqlParameterSource("table", table), Boolean.class);
+        return Boolean.TRUE.equals(names);
+    }
+
+    /**
+     * Converts a hit table that stores app and URI names and text IPs
+     * into one that refers to the dictionaries and stores binary IPs.
+     * Runs once, when upgrading from the table of names.
+     *
+     * @param table      the hit table
+     * @param primaryKey the primary key columns to restore, or null
+     */
+    @Transactional
+    public void encode(final String table, final String primaryKey) {
+        JdbcTemplate jdbc = jdbcTemplate.getJdbcTemplate();
+        jdbc.execute("LOCK TABLE " + table + " IN ACCESS EXCLUSIVE MODE");
+        jdbc.execute("INSERT INTO statistic_app (name) SELECT DISTINCT app "
+                + "FROM " + table + " ON CONFLICT (name) DO NOTHING");
+        jdbc.execute("INSERT INTO statistic_uri (name) SELECT DISTINCT uri "
+                + "FROM " + table + " ON CONFLICT (name) DO NOTHING");
+        jdbc.execute("ALTER TABLE " + table
+                + " ADD COLUMN IF NOT EXISTS app_id INTEGER,"
+                + " ADD COLUMN IF NOT EXISTS uri_id INTEGER");
+        int rows = jdbc.update("UPDATE " + table + " t "
+                + "SET app_id = a.id, uri_id = u.id "
+                + "FROM statistic_app a, statistic_uri u "
+                + "WHERE a.name = t.app AND u.name = t.uri");
+        jdbc.execute("ALTER TABLE " + table
+                + " DROP COLUMN app, DROP COLUMN uri,"
+                + " ALTER COLUMN app_id SET NOT NULL,"
+                + " ALTER COLUMN uri_id SET NOT NULL,"
+                + " ALTER COLUMN ip TYPE BYTEA USING " + IP_TO_BYTES);
+        if (primaryKey != null) {
+            jdbc.execute("ALTER TABLE " + table + " ADD CONSTRAINT pk_"
+                    + table + " PRIMARY KEY (" + primaryKey + ")");
+        }
+        log.info("Encoded {} rows of {} with dictionary ids", rows, table);
+    }
+
+    /**
+     * Returns the ids of the names, adding the missing names. Runs in
+     * its own transaction, so that added names survive a rollback of
+     * the caller and cached ids always exist.
+     *
+     * @param dictionary the dictionary
+     * @param names      the names
+     * @return the id of every name
+     */
+    @Transactional(Transactional.TxType.REQUIRES_NEW)
+    public Map<String, Integer> intern(final Dictionary dictionary,
+                                       final Collection<String> names) {
+        Map<String, Integer> ids = findIds(dictionary, names);
+        List<String> missing = names.stream()
+                .filter(name -> !ids.containsKey(name))
+                .distinct()
+                .sorted()
+                .toList();
+        if (missing.isEmpty()) {
+            return ids;
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO " + dictionary.getTable()
+                        + " (name) VALUES (:name) ON CONFLICT (name) DO NOTHING",
+                missing.stream()
+                        .map(name -> new MapSqlParameterSource("name", name))
+                        .toArray(MapSqlParameterSource[]::new));
+        ids.putAll(load(dictionary, missing));
+        return ids;
+    }
+
+    /**
+     * Returns the ids of the names that are in the dictionary.
+     *
+     * @param dictionary the dictionary
+     * @param names      the names
+     * @return the id of every known name
+     */
+    public Map<String, Integer> findIds(final Dictionary dictionary,
+                                        final Collection<String> names) {
+        Map<String, Integer> cached = cache.get(dictionary);
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> unknown = names.stream()
+                .filter(name -> {
+                    Integer id = cached.get(name);
+                    if (id != null) {
+                        ids.put(name, id);
+                    }
+                    return id == null;
+                })
+                .distinct()
+                .toList();
+        if (!unknown.isEmpty()) {
+            ids.putAll(load(dictionary, unknown));
+        }
+        return ids;
+    }
+
+    /**
+     * Reads the ids of the names from the dictionary and caches them.
+     *
+     * @param dictionary the dictionary
+     * @param names      the names
+     * @return the id of every name found
+     */
+    private Map<String, Integer> load(final Dictionary dictionary,
+                                      final List<String> names) {
+        Map<String, Integer> cached = cache.get(dictionary);
+        if (cached.size() + names.size() > MAX_CACHED) {
+            cached.clear();
+        }
+        Map<String, Integer> ids = new HashMap<>();
+        jdbcTemplate.query("SELECT id, name FROM " + dictionary.getTable()
+                        + " WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                (RowCallbackHandler) rs -> {
+                    ids.put(rs.getString("name"), rs.getInt("id"));
+                    cached.put(rs.getString("name"), rs.getInt("id"));
+                });
+        return ids;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the dictionaries of apps and URIs that the
+ * raw hits of ExploreWithMe statistics refer to by id.
+ */
+package ru.practicum.explorewithme.dictionary;
@@ -1,8 +1,12 @@
 package ru.practicum.explorewithme.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
 /**
  * Custom exception for bad requests.
  */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class CustomBadRequestException extends RuntimeException {
 
     /**
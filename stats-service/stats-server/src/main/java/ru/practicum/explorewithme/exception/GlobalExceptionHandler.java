@@ -22,4 +22,17 @@ public class GlobalExceptionHandler {
     public String handleWrongTimeException(final WrongTimeException ex) {
         return ex.getMessage();
     }
+
+    /**
+     * Handles CustomBadRequestException.
+     *
+     * @param ex the CustomBadRequestException
+     * @return the error message
+     */
+    @ExceptionHandler(CustomBadRequestException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public String handleBadRequestException(
+            final CustomBadRequestException ex) {
+        return ex.getMessage();
+    }
 }
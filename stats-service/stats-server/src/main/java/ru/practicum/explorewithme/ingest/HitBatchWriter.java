@@ -0,0 +1,156 @@
+package ru.practicum.explorewithme.ingest;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.explorewithme.dictionary.Dictionary;
+import ru.practicum.explorewithme.dictionary.DictionaryRepository;
+import ru.practicum.explorewithme.model.IpAddresses;
+import ru.practicum.explorewithme.model.StatisticEntity;
+import ru.practicum.explorewithme.rollup.RollupRepository;
+import ru.practicum.explorewithme.rollup.VisitorSketchMerger;
+import ru.practicum.explorewithme.views.ViewCounterService;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes batches of hits with multi-row JDBC inserts, referring to the
+ * app and the URI of every hit by dictionary id.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class HitBatchWriter {
+    /**
+     * Insert statement prefix.
+     */
+    private static final String INSERT_PREFIX =
+            "INSERT INTO statistic (app_id, uri_id, ip, creation_time) "
+                    + "VALUES ";
+    /**
+     * Placeholders of one inserted row.
+     */
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?)";
+    /**
+     * Number of columns in one inserted row.
+     */
+    private static final int COLUMNS = 4;
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+    /**
+     * Ingestion settings.
+     */
+    private final IngestProperties properties;
+    /**
+     * App and URI dictionaries.
+     */
+    private final DictionaryRepository dictionaryRepository;
+    /**
+     * Rollup repository.
+     */
+    private final RollupRepository rollupRepository;
+    /**
+     * Collects the visitors of written hits for the sketches.
+     */
+    private final VisitorSketchMerger sketchMerger;
+    /**
+     * In-memory view counters.
+     */
+    private final ViewCounterService viewCounterService;
+
+    /**
+     * Writes the hits and updates their rollups in one transaction.
+     * Once it commits, their visitors are handed to the sketch merger
+     * and counted by the view counters.
+     *
+     * @param hits the hits to write
+     */
+    @Transactional
+    public void write(final List<StatisticEntity> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        setIds(hits);
+        int chunkSize = Math.max(1, properties.getRowsPerStatement());
+        for (int from = 0; from < hits.size(); from += chunkSize) {
+            List<StatisticEntity> chunk = hits.subList(from,
+                    Math.min(from + chunkSize, hits.size()));
+            jdbcTemplate.update(insertSql(chunk.size()), insertArgs(chunk));
+        }
+        rollupRepository.add(hits);
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        sketchMerger.add(hits);
+                        viewCounterService.record(hits);
+                    }
+                });
+        log.debug("Written {} hits", hits.size());
+    }
+
+    /**
+     * Sets the dictionary ids of the apps and URIs of the hits.
+     *
+     * @param hits the hits
+     */
+    private void setIds(final List<StatisticEntity> hits) {
+        Map<String, Integer> appIds = dictionaryRepository.intern(
+                Dictionary.APP,
+                hits.stream().map(StatisticEntity::getApp).toList());
+        Map<String, Integer> uriIds = dictionaryRepository.intern(
+                Dictionary.URI,
+                hits.stream().map(StatisticEntity::getUri).toList());
+        for (StatisticEntity hit : hits) {
+            hit.setAppId(appIds.get(hit.getApp()));
+            hit.setUriId(uriIds.get(hit.getUri()));
+        }
+    }
+
+    /**
+     * Builds a multi-row insert statement.
+     *
+     * @param rows the number of rows
+     * @return the SQL statement
+     */
+    private String insertSql(final int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Flattens the hits into statement arguments.
+     *
+     * @param hits the hits
+     * @return the arguments
+     */
+    private Object[] insertArgs(final List<StatisticEntity> hits) {
+        Object[] args = new Object[hits.size() * COLUMNS];
+        int i = 0;
+        for (StatisticEntity hit : hits) {
+            args[i++] = hit.getAppId();
+            args[i++] = hit.getUriId();
+            args[i++] = IpAddresses.encode(hit.getIp());
+            args[i++] = Timestamp.valueOf(hit.getCreationTime());
+        }
+        return args;
+    }
+}
@@ -0,0 +1,416 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded in-memory queue of incoming hits.
+ * Hits are flushed by a background thread when a batch is full or
+ * the flush interval elapses. A producer that finds the queue full
+ * flushes it itself, which throttles producers to the write rate.
+ * Pending hits are drained when the application stops.
+ * <p>
+ * With the write-ahead log enabled, hits are logged before they are
+ * acknowledged, and hits logged but not written by a previous run are
+ * written on startup. A logged hit is acknowledged even when it cannot
+ * be written or queued now, e.g. while the database is down: it stays
+ * in the log and is written on the next start, so that the client does
+ * not retry, and store it twice.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class HitBuffer implements SmartLifecycle {
+    /**
+     * Lifecycle phase: started before and stopped after the web server.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    /**
+     * Ingestion settings.
+     */
+    private final IngestProperties properties;
+    /**
+     * Batch writer.
+     */
+    private final HitBatchWriter writer;
+    /**
+     * Serializes flushes.
+     */
+    private final ReentrantLock flushLock = new ReentrantLock();
+    /**
+     * Whether a size-triggered flush is already scheduled.
+     */
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    /**
+     * Number of hits of failed batches that could not be requeued.
+     */
+    private final AtomicLong dropped = new AtomicLong();
+    /**
+     * Number of logged hits left in the write-ahead log for the next
+     * start because they could neither be written nor queued.
+     */
+    private final AtomicLong deferred = new AtomicLong();
+    /**
+     * Pending hits.
+     */
+    private volatile BlockingQueue<PendingHit> queue;
+    /**
+     * Write-ahead log, null when disabled.
+     */
+    private volatile WriteAheadLog wal;
+    /**
+     * Background flusher.
+     */
+    private volatile ScheduledExecutorService flusher;
+    /**
+     * Whether the buffer accepts hits.
+     */
+    private volatile boolean running;
+
+    /**
+     * Accepts a hit for writing. Writes it synchronously when buffering
+     * is disabled or the buffer is not running.
+     *
+     * @param hit the hit
+     */
+    public void submit(final StatisticEntity hit) {
+        if (!properties.isBuffered() || !running) {
+            writer.write(List.of(hit));
+            return;
+        }
+        enqueue(new PendingHit(hit, log(List.of(hit))));
+    }
+
+    /**
+     * Accepts several hits for writing. Writes them synchronously in one
+     * batch when buffering is disabled or the buffer is not running.
+     *
+     * @param hits the hits
+     */
+    public void submitAll(final List<StatisticEntity> hits) {
+        if (!properties.isBuffered() || !running) {
+            writer.write(hits);
+            return;
+        }
+        WalFile file = log(hits);
+        hits.forEach(hit -> enqueue(new PendingHit(hit, file)));
+    }
+
+    /**
+     * Queues a hit, flushing on the caller thread while the queue is
+     * full, and schedules a flush when a batch is complete. When that
+     * flush fails, the hit is {@link #keep(PendingHit, RuntimeException)
+     * kept} instead of failing the request.
+     *
+     * @param hit the hit
+     */
+    private void enqueue(final PendingHit hit) {
+        while (!offer(hit)) {
+            log.debug("Hit queue is full, flushing on the caller thread");
+            RuntimeException failure = null;
+            try {
+                flush();
+            } catch (RuntimeException e) {
+                failure = e;
+            }
+            if (failure != null || Thread.currentThread().isInterrupted()) {
+                if (!queue.offer(hit)) {
+                    keep(hit, failure);
+                }
+                return;
+            }
+        }
+        if (queue.size() >= properties.getBatchSize()
+                && flushScheduled.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushScheduled.set(false);
+                flushQuietly();
+            });
+        }
+    }
+
+    /**
+     * Writes every pending hit.
+     */
+    public void flush() {
+        BlockingQueue<PendingHit> pending = queue;
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (wal != null) {
+                wal.rotate();
+            }
+            int batchSize = Math.max(1, properties.getBatchSize());
+            List<PendingHit> batch = new ArrayList<>(batchSize);
+            while (pending.drainTo(batch, batchSize) > 0) {
+                write(batch);
+                batch.clear();
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of pending hits.
+     *
+     * @return the number of pending hits
+     */
+    public int pending() {
+        BlockingQueue<PendingHit> pending = queue;
+        return pending == null ? 0 : pending.size();
+    }
+
+    /**
+     * Returns the number of hits lost since startup because their batch
+     * failed, the queue had no room to retry them and they were not in
+     * the write-ahead log.
+     *
+     * @return the number of dropped hits
+     */
+    public long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of hits left in the write-ahead log since
+     * startup, to be written on the next start.
+     *
+     * @return the number of deferred hits
+     */
+    public long deferred() {
+        return deferred.get();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hit-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (properties.isBuffered() && properties.isWalEnabled()) {
+            wal = new WriteAheadLog(Paths.get(properties.getWalDirectory()),
+                    properties.getWalSync());
+            replay(wal.recover());
+            if (properties.getWalSync() == WalSyncPolicy.INTERVAL) {
+                long syncInterval = properties.getWalSyncInterval().toMillis();
+                flusher.scheduleWithFixedDelay(this::syncQuietly,
+                        syncInterval, syncInterval, TimeUnit.MILLISECONDS);
+            }
+        }
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushQuietly,
+                interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+        log.info("Hit buffer started, capacity: {}, batch size: {}, "
+                        + "flush interval: {}", properties.getCapacity(),
+                properties.getBatchSize(), properties.getFlushInterval());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(
+                    properties.getShutdownTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS)) {
+                log.warn("Hit flusher did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Draining {} pending hits", pending());
+        flush();
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Offers a hit to the queue, waiting for free space up to the
+     * configured timeout.
+     *
+     * @param hit the hit
+     * @return true if the hit was queued
+     */
+    private boolean offer(final PendingHit hit) {
+        try {
+            return queue.offer(hit, properties.getOfferTimeout().toMillis(),
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Keeps a hit that could neither be written nor queued. A logged
+     * hit stays in the write-ahead log for the next start; a hit that
+     * is not logged is rejected, so that the client can retry it.
+     *
+     * @param hit     the hit
+     * @param failure the failure of the write, or null if interrupted
+     */
+    private void keep(final PendingHit hit, final RuntimeException failure) {
+        if (hit.getFile() == null) {
+            throw failure != null ? failure
+                    : new IllegalStateException("Interrupted while queueing "
+                    + "a hit");
+        }
+        log.warn("Hit queue is full and cannot be written, left the hit in "
+                + "the write-ahead log, deferred in total: {}",
+                deferred.incrementAndGet());
+    }
+
+    /**
+     * Logs hits to the write-ahead log, if enabled.
+     *
+     * @param hits the hits
+     * @return the log file of the hits, or null when the log is disabled
+     */
+    private WalFile log(final List<StatisticEntity> hits) {
+        WriteAheadLog current = wal;
+        return current == null ? null : current.append(hits);
+    }
+
+    /**
+     * Writes the hits left in the write-ahead log by a previous run.
+     *
+     * @param hits the logged hits
+     */
+    private void replay(final List<PendingHit> hits) {
+        if (hits.isEmpty()) {
+            return;
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < hits.size(); from += batchSize) {
+            writeAndRelease(hits.subList(from,
+                    Math.min(from + batchSize, hits.size())));
+        }
+        log.info("Replayed {} hits from the write-ahead log", hits.size());
+    }
+
+    /**
+     * Writes a batch and releases its hits from their log files.
+     *
+     * @param batch the batch
+     */
+    private void writeAndRelease(final List<PendingHit> batch) {
+        writer.write(batch.stream().map(PendingHit::getHit).toList());
+        Map<WalFile, Integer> released = new HashMap<>();
+        for (PendingHit hit : batch) {
+            if (hit.getFile() != null) {
+                released.merge(hit.getFile(), 1, Integer::sum);
+            }
+        }
+        released.forEach(WalFile::persisted);
+    }
+
+    /**
+     * Writes a batch. A failed batch is put back into the queue
+     * so that it is retried by the next flush. Hits that no longer fit
+     * stay in the write-ahead log for the next start, or, when they are
+     * not logged, are dropped, counted and logged as errors.
+     *
+     * @param batch the batch
+     */
+    private void write(final List<PendingHit> batch) {
+        try {
+            writeAndRelease(batch);
+        } catch (RuntimeException e) {
+            int requeued = 0;
+            int logged = 0;
+            for (PendingHit hit : batch) {
+                if (queue.offer(hit)) {
+                    requeued++;
+                } else if (hit.getFile() != null) {
+                    logged++;
+                }
+            }
+            int lost = batch.size() - requeued - logged;
+            deferred.addAndGet(logged);
+            if (requeued < batch.size()) {
+                log.error("Failed to write {} hits, requeued {}, left {} in "
+                                + "the write-ahead log, dropped {}, dropped in "
+                                + "total: {}", batch.size(), requeued, logged,
+                        lost, dropped.addAndGet(lost), e);
+            } else {
+                log.error("Failed to write {} hits, requeued all of them",
+                        batch.size(), e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Flushes and logs failures instead of propagating them,
+     * so that the scheduled flusher keeps running.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.debug("Scheduled flush failed", e);
+        }
+    }
+
+    /**
+     * Forces the write-ahead log and logs failures instead of
+     * propagating them, so that the scheduled sync keeps running.
+     */
+    private void syncQuietly() {
+        try {
+            wal.sync();
+        } catch (RuntimeException e) {
+            log.warn("Write-ahead log sync failed", e);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resolves the creation time of incoming hits. Clients may report when
+ * a hit happened, for example after batching it, but only within
+ * a bounded window around the server time: older hits would land in
+ * compacted or default partitions, future ones in rollups ahead of time.
+ * <p>
+ * A time outside the window is clamped to its nearest edge, hit by hit,
+ * so that one late hit neither loses the others of its batch nor makes
+ * the client retry the batch forever.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HitClock {
+    /**
+     * Ingestion settings.
+     */
+    private final IngestProperties properties;
+    /**
+     * Number of reported times clamped since startup.
+     */
+    private final AtomicLong clamped = new AtomicLong();
+
+    /**
+     * Returns the creation time of a hit.
+     *
+     * @param reported the time reported by the client, may be null
+     * @param now      the server time of the request
+     * @return the reported time clamped to the accepted window, or the
+     *         server time if none was reported
+     */
+    public LocalDateTime resolve(final LocalDateTime reported,
+                                 final LocalDateTime now) {
+        if (reported == null) {
+            return now;
+        }
+        LocalDateTime oldest = now.minus(properties.getMaxHitAge());
+        LocalDateTime latest = now.plus(properties.getMaxClockSkew());
+        LocalDateTime resolved = reported.isBefore(oldest) ? oldest
+                : reported.isAfter(latest) ? latest : reported;
+        if (!resolved.equals(reported)) {
+            log.debug("Hit creation time {} clamped to {}, clamped in "
+                    + "total: {}", reported, resolved, clamped.incrementAndGet());
+        }
+        return resolved;
+    }
+
+    /**
+     * Returns the number of reported times clamped since startup.
+     *
+     * @return the number of clamped times
+     */
+    public long clamped() {
+        return clamped.get();
+    }
+}
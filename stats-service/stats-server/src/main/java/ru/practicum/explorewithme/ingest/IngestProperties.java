@@ -0,0 +1,104 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the hit ingestion pipeline.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.ingest")
+public class IngestProperties {
+    /**
+     * Default queue capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 10_000;
+    /**
+     * Default batch size.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+    /**
+     * Default number of rows in one insert statement.
+     */
+    private static final int DEFAULT_ROWS_PER_STATEMENT = 500;
+
+    /**
+     * Whether hits are buffered in memory before being written.
+     * When disabled every hit is written synchronously.
+     */
+    private boolean buffered = true;
+
+    /**
+     * Maximum number of hits waiting in the queue.
+     */
+    private int capacity = DEFAULT_CAPACITY;
+
+    /**
+     * Number of queued hits that triggers a flush.
+     */
+    private int batchSize = DEFAULT_BATCH_SIZE;
+
+    /**
+     * Maximum number of rows in one multi-row insert statement.
+     */
+    private int rowsPerStatement = DEFAULT_ROWS_PER_STATEMENT;
+
+    /**
+     * Maximum time a hit waits in the queue before being flushed.
+     */
+    private Duration flushInterval = Duration.ofSeconds(1);
+
+    /**
+     * How long a producer waits for free space in a full queue
+     * before it flushes the queue itself.
+     */
+    private Duration offerTimeout = Duration.ofMillis(50);
+
+    /**
+     * How long shutdown waits for the flusher before draining.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Whether pending hits are flushed before statistics are read,
+     * so that reads observe every acknowledged hit. Off by default:
+     * reads lag acknowledged hits by up to one flush interval, and
+     * neither pay for nor fail with a write.
+     */
+    private boolean flushOnRead;
+
+    /**
+     * How far before the server time a client-reported hit creation
+     * time may be. Older times are clamped to this bound.
+     */
+    private Duration maxHitAge = Duration.ofHours(1);
+
+    /**
+     * How far after the server time a client-reported hit creation
+     * time may be. Later times are clamped to this bound.
+     */
+    private Duration maxClockSkew = Duration.ofMinutes(1);
+
+    /**
+     * Whether buffered hits are written to a local write-ahead log
+     * before they are acknowledged, and replayed after a crash.
+     */
+    private boolean walEnabled;
+
+    /**
+     * Directory of the write-ahead log files.
+     */
+    private String walDirectory = "wal";
+
+    /**
+     * When the write-ahead log is forced to disk.
+     */
+    private WalSyncPolicy walSync = WalSyncPolicy.ALWAYS;
+
+    /**
+     * Interval of forcing the write-ahead log with the interval policy.
+     */
+    private Duration walSyncInterval = Duration.ofMillis(200);
+}
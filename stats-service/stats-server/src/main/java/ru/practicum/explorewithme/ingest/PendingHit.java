@@ -0,0 +1,20 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.Value;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+/**
+ * Hit waiting in the buffer, with the write-ahead log file that holds it.
+ */
+@Value
+class PendingHit {
+    /**
+     * The hit.
+     */
+    StatisticEntity hit;
+
+    /**
+     * The log file of the hit, or null when the log is disabled.
+     */
+    WalFile file;
+}
@@ -0,0 +1,95 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * One file of the write-ahead log. It is deleted once it no longer
+ * receives hits and every hit in it has been written to the database.
+ */
+@Slf4j
+class WalFile {
+    /**
+     * The file.
+     */
+    private final Path path;
+    /**
+     * Number of hits in the file.
+     */
+    private int appended;
+    /**
+     * Number of hits of the file written to the database.
+     */
+    private int persisted;
+    /**
+     * Whether the file receives no more hits.
+     */
+    private boolean sealed;
+    /**
+     * Whether the file has been deleted.
+     */
+    private boolean deleted;
+
+    /**
+     * Creates the bookkeeping of a log file.
+     *
+     * @param path the file
+     */
+    WalFile(final Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Returns the file.
+     *
+     * @return the file
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Records hits appended to the file.
+     *
+     * @param hits the number of hits
+     */
+    synchronized void appended(final int hits) {
+        appended += hits;
+    }
+
+    /**
+     * Records hits of the file written to the database.
+     *
+     * @param hits the number of hits
+     */
+    synchronized void persisted(final int hits) {
+        persisted += hits;
+        deleteIfDone();
+    }
+
+    /**
+     * Marks the file as receiving no more hits.
+     */
+    synchronized void seal() {
+        sealed = true;
+        deleteIfDone();
+    }
+
+    /**
+     * Deletes the file when it is sealed and fully persisted.
+     */
+    private void deleteIfDone() {
+        if (!sealed || deleted || persisted < appended) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+            deleted = true;
+        } catch (IOException e) {
+            log.warn("Failed to delete write-ahead log file {}", path, e);
+        }
+    }
+}
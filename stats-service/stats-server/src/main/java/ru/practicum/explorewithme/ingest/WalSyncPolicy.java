@@ -0,0 +1,21 @@
+package ru.practicum.explorewithme.ingest;
+
+/**
+ * When the write-ahead log of hits is forced to disk.
+ */
+public enum WalSyncPolicy {
+    /**
+     * Before every hit is acknowledged. Concurrent producers share one
+     * force, so the cost is paid once per group of hits.
+     */
+    ALWAYS,
+    /**
+     * Periodically, losing at most one interval of hits when the
+     * machine crashes, but none when only the process does.
+     */
+    INTERVAL,
+    /**
+     * Never explicitly, leaving it to the operating system.
+     */
+    NONE
+}
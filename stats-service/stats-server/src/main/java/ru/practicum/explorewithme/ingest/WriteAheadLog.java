@@ -0,0 +1,432 @@
+package ru.practicum.explorewithme.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only log of the hits accepted by the hit buffer.
+ * <p>
+ * Every record is its length, its CRC32 and the hit. Producers append
+ * under a lock and then wait, depending on the sync policy, until the
+ * log has been forced past their records. One waiter forces the file
+ * for every record written so far while the others wait for it, so
+ * concurrent producers share one force (group commit).
+ * <p>
+ * The log is rotated before each flush of the buffer. A file is deleted
+ * once it is rotated out and all its hits are in the database. Files
+ * left by a crash are read back on startup, so replayed hits are
+ * written at least once.
+ */
+@Slf4j
+class WriteAheadLog implements AutoCloseable {
+    /**
+     * Prefix of log file names.
+     */
+    private static final String FILE_PREFIX = "hits-";
+    /**
+     * Suffix of log file names.
+     */
+    private static final String FILE_SUFFIX = ".wal";
+    /**
+     * Bytes of the length and the CRC of a record.
+     */
+    private static final int RECORD_HEADER = 2 * Integer.BYTES;
+    /**
+     * Stored creation time of a hit without one.
+     */
+    private static final long NO_TIME = Long.MIN_VALUE;
+    /**
+     * Number of strings of a hit.
+     */
+    private static final int STRINGS = 3;
+
+    /**
+     * Log directory.
+     */
+    private final Path directory;
+    /**
+     * Sync policy.
+     */
+    private final WalSyncPolicy policy;
+    /**
+     * Guards appends and rotation.
+     */
+    private final Object appendLock = new Object();
+    /**
+     * Guards the election of the waiter that forces the log.
+     */
+    private final ReentrantLock syncLock = new ReentrantLock();
+    /**
+     * Signalled when a force completes.
+     */
+    private final Condition forced = syncLock.newCondition();
+    /**
+     * Log position up to which the log is on disk.
+     */
+    private final AtomicLong durable = new AtomicLong();
+    /**
+     * Whether a waiter is forcing the log.
+     */
+    private boolean forcing;
+    /**
+     * Log position after the last record, over all files.
+     */
+    private long written;
+    /**
+     * Sequence number of the current file.
+     */
+    private long sequence;
+    /**
+     * Current file.
+     */
+    private WalFile current;
+    /**
+     * Channel of the current file.
+     */
+    private FileChannel channel;
+
+    /**
+     * Opens a log in a directory, creating it when missing. Existing
+     * files are left for {@link #recover()}.
+     *
+     * @param directory the directory
+     * @param policy    the sync policy
+     */
+    WriteAheadLog(final Path directory, final WalSyncPolicy policy) {
+        this.directory = directory;
+        this.policy = policy;
+        try {
+            Files.createDirectories(directory);
+            for (Path file : files()) {
+                sequence = Math.max(sequence, sequenceOf(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (appendLock) {
+            openNext();
+        }
+    }
+
+    /**
+     * Reads the hits of the files left by the previous run.
+     *
+     * @return the hits and their files, oldest first
+     */
+    List<PendingHit> recover() {
+        List<PendingHit> hits = new ArrayList<>();
+        for (Path path : files()) {
+            if (path.equals(current.path())) {
+                continue;
+            }
+            WalFile file = new WalFile(path);
+            int read = 0;
+            for (StatisticEntity hit : read(path)) {
+                hits.add(new PendingHit(hit, file));
+                read++;
+            }
+            file.appended(read);
+            file.seal();
+        }
+        return hits;
+    }
+
+    /**
+     * Appends hits and waits until they are durable according to the
+     * sync policy.
+     *
+     * @param hits the hits
+     * @return the file holding the hits
+     */
+    WalFile append(final List<StatisticEntity> hits) {
+        ByteBuffer records = encode(hits);
+        long position;
+        WalFile file;
+        synchronized (appendLock) {
+            try {
+                while (records.hasRemaining()) {
+                    written += channel.write(records);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = written;
+            file = current;
+            file.appended(hits.size());
+        }
+        if (policy == WalSyncPolicy.ALWAYS) {
+            awaitDurable(position);
+        }
+        return file;
+    }
+
+    /**
+     * Forces every record written so far to disk.
+     */
+    void sync() {
+        long position;
+        synchronized (appendLock) {
+            position = written;
+        }
+        awaitDurable(position);
+    }
+
+    /**
+     * Starts a new file, so that the previous one can be deleted once
+     * the hits in it are in the database. Does nothing when the current
+     * file is empty.
+     */
+    void rotate() {
+        synchronized (appendLock) {
+            try {
+                if (channel.size() == 0) {
+                    return;
+                }
+                if (policy != WalSyncPolicy.NONE) {
+                    channel.force(false);
+                    durable.accumulateAndGet(written, Math::max);
+                }
+                channel.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            WalFile previous = current;
+            openNext();
+            previous.seal();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        rotate();
+        synchronized (appendLock) {
+            try {
+                channel.close();
+                Files.deleteIfExists(current.path());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Waits until the log is on disk up to a position, forcing it when
+     * no other waiter does.
+     *
+     * @param position the position
+     */
+    private void awaitDurable(final long position) {
+        syncLock.lock();
+        try {
+            while (durable.get() < position) {
+                if (forcing) {
+                    forced.awaitUninterruptibly();
+                    continue;
+                }
+                forcing = true;
+                syncLock.unlock();
+                try {
+                    durable.accumulateAndGet(force(), Math::max);
+                } finally {
+                    syncLock.lock();
+                    forcing = false;
+                    forced.signalAll();
+                }
+            }
+        } finally {
+            syncLock.unlock();
+        }
+    }
+
+    /**
+     * Forces the current file.
+     *
+     * @return the position the log is on disk up to
+     */
+    private long force() {
+        FileChannel forcedChannel;
+        long position;
+        synchronized (appendLock) {
+            forcedChannel = channel;
+            position = written;
+        }
+        try {
+            forcedChannel.force(false);
+        } catch (ClosedChannelException e) {
+            // rotated meanwhile, rotation forced the file
+            return durable.get();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return position;
+    }
+
+    /**
+     * Opens the next file. Must hold the append lock.
+     */
+    private void openNext() {
+        sequence++;
+        Path path = directory.resolve(String.format("%s%016d%s",
+                FILE_PREFIX, sequence, FILE_SUFFIX));
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                    StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        current = new WalFile(path);
+    }
+
+    /**
+     * Lists the log files, oldest first.
+     *
+     * @return the files
+     */
+    private List<Path> files() {
+        try (Stream<Path> listed = Files.list(directory)) {
+            return listed.filter(path -> {
+                String name = path.getFileName().toString();
+                return name.startsWith(FILE_PREFIX)
+                        && name.endsWith(FILE_SUFFIX);
+            }).sorted().toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Parses the sequence number of a log file.
+     *
+     * @param file the file
+     * @return the sequence number
+     */
+    private static long sequenceOf(final Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(FILE_PREFIX.length(),
+                name.length() - FILE_SUFFIX.length()));
+    }
+
+    /**
+     * Reads the hits of a file up to the first incomplete or corrupt
+     * record.
+     *
+     * @param path the file
+     * @return the hits
+     */
+    private static List<StatisticEntity> read(final Path path) {
+        ByteBuffer content;
+        try {
+            content = ByteBuffer.wrap(Files.readAllBytes(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<StatisticEntity> hits = new ArrayList<>();
+        while (content.remaining() >= RECORD_HEADER) {
+            int length = content.getInt();
+            int crc = content.getInt();
+            if (length < 0 || content.remaining() < length) {
+                break;
+            }
+            byte[] payload = new byte[length];
+            content.get(payload);
+            CRC32 checksum = new CRC32();
+            checksum.update(payload);
+            if ((int) checksum.getValue() != crc) {
+                break;
+            }
+            hits.add(decode(ByteBuffer.wrap(payload)));
+        }
+        if (content.hasRemaining()) {
+            log.warn("Ignored a torn record at the end of {}", path);
+        }
+        return hits;
+    }
+
+    /**
+     * Encodes hits into records.
+     *
+     * @param hits the hits
+     * @return the records, ready to be written
+     */
+    private static ByteBuffer encode(final List<StatisticEntity> hits) {
+        List<byte[]> payloads = new ArrayList<>(hits.size());
+        int size = 0;
+        for (StatisticEntity hit : hits) {
+            byte[] app = hit.getApp().getBytes(StandardCharsets.UTF_8);
+            byte[] uri = hit.getUri().getBytes(StandardCharsets.UTF_8);
+            byte[] ip = hit.getIp().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer payload = ByteBuffer.allocate(Long.BYTES
+                    + (1 + STRINGS) * Integer.BYTES
+                    + app.length + uri.length + ip.length);
+            LocalDateTime time = hit.getCreationTime();
+            payload.putLong(time == null ? NO_TIME
+                            : time.toEpochSecond(ZoneOffset.UTC))
+                    .putInt(time == null ? 0 : time.getNano());
+            payload.putInt(app.length).put(app)
+                    .putInt(uri.length).put(uri)
+                    .putInt(ip.length).put(ip);
+            payloads.add(payload.array());
+            size += RECORD_HEADER + payload.capacity();
+        }
+        ByteBuffer records = ByteBuffer.allocate(size);
+        for (byte[] payload : payloads) {
+            CRC32 checksum = new CRC32();
+            checksum.update(payload);
+            records.putInt(payload.length).putInt((int) checksum.getValue())
+                    .put(payload);
+        }
+        return records.flip();
+    }
+
+    /**
+     * Decodes the payload of a record.
+     *
+     * @param payload the payload
+     * @return the hit
+     */
+    private static StatisticEntity decode(final ByteBuffer payload) {
+        long seconds = payload.getLong();
+        int nanos = payload.getInt();
+        return StatisticEntity.builder()
+                .creationTime(seconds == NO_TIME ? null : LocalDateTime
+                        .ofEpochSecond(seconds, nanos, ZoneOffset.UTC))
+                .app(readString(payload))
+                .uri(readString(payload))
+                .ip(readString(payload))
+                .build();
+    }
+
+    /**
+     * Reads one length-prefixed string.
+     *
+     * @param payload the payload
+     * @return the string
+     */
+    private static String readString(final ByteBuffer payload) {
+        byte[] bytes = new byte[payload.getInt()];
+        payload.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
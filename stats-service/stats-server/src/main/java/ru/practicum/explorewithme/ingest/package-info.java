@@ -0,0 +1,5 @@
+/**
+ * This package contains the hit ingestion pipeline
+ * that buffers and batch-writes statistics for ExploreWithMe.
+ */
+package ru.practicum.explorewithme.ingest;
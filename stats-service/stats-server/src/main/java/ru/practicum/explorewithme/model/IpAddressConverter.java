@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores client IPs in their binary form.
+ *
+ * @see IpAddresses
+ */
+@Converter
+public class IpAddressConverter implements AttributeConverter<String, byte[]> {
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public byte[] convertToDatabaseColumn(final String ip) {
+        return ip == null ? null : IpAddresses.encode(ip);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String convertToEntityAttribute(final byte[] bytes) {
+        return bytes == null ? null : IpAddresses.decode(bytes);
+    }
+}
@@ -0,0 +1,148 @@
+package ru.practicum.explorewithme.model;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+/**
+ * Binary form of the client IPs of hits.
+ * <p>
+ * A dotted IPv4 address is stored as its four bytes. An IPv6 address
+ * in the form {@link InetAddress#getHostAddress()} gives it, as servlet
+ * containers report it, is stored as its sixteen bytes behind an IPv6
+ * marker byte. Any other value, including IPv6 addresses written
+ * differently, is stored as its UTF-8 bytes behind a zero marker byte,
+ * with a second marker byte when it would otherwise be four bytes long,
+ * so that it never looks like an IPv4 address. Decoding gives back the
+ * original value, so visitors hash the same way before and after being
+ * stored. IPv6 addresses stored before they were encoded keep their
+ * text form.
+ */
+public final class IpAddresses {
+    /**
+     * Dotted IPv4 address without leading zeros, also used by the
+     * migration of stored addresses, so both encode the same way.
+     */
+    public static final String IPV4_REGEX = "^((25[0-5]|2[0-4][0-9]"
+            + "|1[0-9][0-9]|[1-9]?[0-9])\\.){3}"
+            + "(25[0-5]|2[0-4][0-9]|1[0-9][0-9]|[1-9]?[0-9])$";
+    /**
+     * Compiled {@link #IPV4_REGEX}.
+     */
+    private static final Pattern IPV4 = Pattern.compile(IPV4_REGEX);
+    /**
+     * Characters of an IPv6 address as {@link Inet6Address} prints it,
+     * checked before parsing, so that a host name is never resolved.
+     */
+    private static final Pattern IPV6 = Pattern.compile("^[0-9a-f:]*:"
+            + "[0-9a-f:]*$");
+    /**
+     * Bytes of an IPv4 address.
+     */
+    private static final int IPV4_BYTES = 4;
+    /**
+     * Bytes of an IPv6 address.
+     */
+    private static final int IPV6_BYTES = 16;
+    /**
+     * Mask of an unsigned byte.
+     */
+    private static final int BYTE_MASK = 0xff;
+    /**
+     * Marker byte of a value that is not an IPv4 address.
+     */
+    private static final byte MARKER = 0;
+    /**
+     * Marker byte of an IPv6 address.
+     */
+    private static final byte IPV6_MARKER = 6;
+
+    private IpAddresses() {
+    }
+
+    /**
+     * Encodes an IP.
+     *
+     * @param ip the IP as received
+     * @return the binary form
+     */
+    public static byte[] encode(final String ip) {
+        if (IPV4.matcher(ip).matches()) {
+            String[] octets = ip.split("\\.");
+            byte[] bytes = new byte[IPV4_BYTES];
+            for (int i = 0; i < IPV4_BYTES; i++) {
+                bytes[i] = (byte) Integer.parseInt(octets[i]);
+            }
+            return bytes;
+        }
+        byte[] ipv6 = encodeIpv6(ip);
+        if (ipv6 != null) {
+            return ipv6;
+        }
+        byte[] text = ip.getBytes(StandardCharsets.UTF_8);
+        int markers = text.length + 1 == IPV4_BYTES ? 2 : 1;
+        byte[] bytes = new byte[markers + text.length];
+        System.arraycopy(text, 0, bytes, markers, text.length);
+        return bytes;
+    }
+
+    /**
+     * Decodes an IP.
+     *
+     * @param bytes the binary form
+     * @return the IP as received
+     */
+    public static String decode(final byte[] bytes) {
+        if (bytes.length == IPV4_BYTES) {
+            StringBuilder ip = new StringBuilder();
+            for (byte octet : bytes) {
+                if (!ip.isEmpty()) {
+                    ip.append('.');
+                }
+                ip.append(octet & BYTE_MASK);
+            }
+            return ip.toString();
+        }
+        if (bytes.length == IPV6_BYTES + 1 && bytes[0] == IPV6_MARKER) {
+            try {
+                return InetAddress.getByAddress(Arrays.copyOfRange(bytes, 1,
+                        bytes.length)).getHostAddress();
+            } catch (UnknownHostException e) {
+                throw new IllegalStateException("Invalid IPv6 address", e);
+            }
+        }
+        int markers = bytes.length == IPV4_BYTES + 1 && bytes[1] == MARKER
+                ? 2 : 1;
+        return new String(Arrays.copyOfRange(bytes, markers, bytes.length),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Encodes an IPv6 address that decodes back to the same text.
+     *
+     * @param ip the IP as received
+     * @return the binary form, or null if the IP is not such an address
+     */
+    private static byte[] encodeIpv6(final String ip) {
+        if (!IPV6.matcher(ip).matches()) {
+            return null;
+        }
+        InetAddress address;
+        try {
+            address = InetAddress.getByName(ip);
+        } catch (UnknownHostException e) {
+            return null;
+        }
+        if (!(address instanceof Inet6Address)
+                || !address.getHostAddress().equals(ip)) {
+            return null;
+        }
+        byte[] bytes = new byte[IPV6_BYTES + 1];
+        bytes[0] = IPV6_MARKER;
+        System.arraycopy(address.getAddress(), 0, bytes, 1, IPV6_BYTES);
+        return bytes;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.practicum.explorewithme.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -17,6 +18,9 @@ import java.time.LocalDateTime;
 
 /**
  * Entity representing a statistic record.
+ * <p>
+ * The app and the URI are stored as ids of the statistic_app and
+ * statistic_uri dictionaries, the IP in binary form.
  */
 @Entity
 @Data
@@ -35,16 +39,31 @@ public class StatisticEntity {
     /**
      * The name of the application.
      */
+    @Transient
     private String app;
 
+    /**
+     * The dictionary id of the application.
+     */
+    @Column(name = "app_id")
+    private Integer appId;
+
     /**
      * The URI of the request.
      */
+    @Transient
     private String uri;
 
+    /**
+     * The dictionary id of the URI.
+     */
+    @Column(name = "uri_id")
+    private Integer uriId;
+
     /**
      * The IP address of the client.
      */
+    @Convert(converter = IpAddressConverter.class)
     private String ip;
 
     /**
@@ -0,0 +1,40 @@
+package ru.practicum.explorewithme.partition;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One range partition of the raw hit table.
+ */
+@Data
+@AllArgsConstructor
+public class Partition {
+    /**
+     * The partition table name.
+     */
+    private String name;
+
+    /**
+     * The inclusive lower bound of the creation times.
+     */
+    private LocalDateTime from;
+
+    /**
+     * The exclusive upper bound of the creation times.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Returns whether the partition shares creation times with a range.
+     *
+     * @param rangeFrom the inclusive lower bound of the range
+     * @param rangeTo   the exclusive upper bound of the range
+     * @return true if the partition overlaps the range
+     */
+    public boolean overlaps(final LocalDateTime rangeFrom,
+                            final LocalDateTime rangeTo) {
+        return from.isBefore(rangeTo) && rangeFrom.isBefore(to);
+    }
+}
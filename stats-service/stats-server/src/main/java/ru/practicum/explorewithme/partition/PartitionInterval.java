@@ -0,0 +1,65 @@
+package ru.practicum.explorewithme.partition;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Time span covered by one partition of the raw hit table.
+ */
+public enum PartitionInterval {
+    /**
+     * One day.
+     */
+    DAY(ChronoUnit.DAYS, "yyyyMMdd"),
+    /**
+     * One calendar month.
+     */
+    MONTH(ChronoUnit.MONTHS, "yyyyMM");
+
+    /**
+     * Partition length.
+     */
+    private final ChronoUnit unit;
+    /**
+     * Format of the partition start in partition names.
+     */
+    private final DateTimeFormatter nameFormat;
+
+    PartitionInterval(final ChronoUnit unit, final String namePattern) {
+        this.unit = unit;
+        this.nameFormat = DateTimeFormatter.ofPattern(namePattern);
+    }
+
+    /**
+     * Returns the start of the partition that contains the time.
+     *
+     * @param time the time
+     * @return the partition start
+     */
+    public LocalDateTime floor(final LocalDateTime time) {
+        LocalDateTime day = time.truncatedTo(ChronoUnit.DAYS);
+        return this == MONTH ? day.withDayOfMonth(1) : day;
+    }
+
+    /**
+     * Returns the start of the partition following the one starting at
+     * the time.
+     *
+     * @param start the partition start
+     * @return the next partition start
+     */
+    public LocalDateTime next(final LocalDateTime start) {
+        return start.plus(1, unit);
+    }
+
+    /**
+     * Returns the name of the partition starting at the time.
+     *
+     * @param start the partition start
+     * @return the partition table name
+     */
+    public String name(final LocalDateTime start) {
+        return "statistic_p" + nameFormat.format(start);
+    }
+}
@@ -0,0 +1,128 @@
+package ru.practicum.explorewithme.partition;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the statistic table partitioned by creation time.
+ * <p>
+ * On startup an unpartitioned table is converted. Then, and every
+ * {@code check-interval}, partitions are created for the current and
+ * the next {@code premake} intervals. Old partitions are dropped by
+ * the raw hit compaction. Starts before the rollup backfill and the
+ * hit buffer.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionManager implements SmartLifecycle {
+    /**
+     * Partition settings.
+     */
+    private final PartitionProperties properties;
+    /**
+     * Partition repository.
+     */
+    private final PartitionRepository repository;
+    /**
+     * Runs the periodic maintenance.
+     */
+    private volatile ScheduledExecutorService maintainer;
+    /**
+     * Whether the manager is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Creates the missing partitions up to the premake horizon.
+     */
+    public synchronized void maintain() {
+        PartitionInterval interval = properties.getInterval();
+        List<Partition> partitions = repository.findPartitions();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = interval.floor(now);
+        for (int i = 0; i <= properties.getPremake(); i++) {
+            LocalDateTime from = start;
+            LocalDateTime to = interval.next(from);
+            if (partitions.stream().noneMatch(p -> p.overlaps(from, to))) {
+                Partition partition =
+                        new Partition(interval.name(from), from, to);
+                repository.create(partition);
+                partitions.add(partition);
+            }
+            start = to;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        if (!repository.isPartitioned()) {
+            log.info("Partitioning the statistic table by {}",
+                    properties.getInterval());
+            repository.migrate(properties.getInterval());
+        }
+        repository.ensureDefaultPartitionAndIndexes();
+        maintain();
+        maintainer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "partition-maintainer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getCheckInterval().toMillis();
+        maintainer.scheduleWithFixedDelay(this::maintainQuietly,
+                interval, interval, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        maintainer.shutdownNow();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return HitBuffer.PHASE - 2;
+    }
+
+    /**
+     * Maintains the partitions and logs failures instead of propagating
+     * them, so that the scheduled maintenance keeps running.
+     */
+    private void maintainQuietly() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("Partition maintenance failed", e);
+        }
+    }
+}
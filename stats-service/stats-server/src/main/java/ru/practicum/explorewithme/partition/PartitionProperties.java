@@ -0,0 +1,33 @@
+package ru.practicum.explorewithme.partition;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the time partitioning of the raw hit table.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.partitions")
+public class PartitionProperties {
+    /**
+     * Default number of partitions created ahead of the current one.
+     */
+    private static final int DEFAULT_PREMAKE = 2;
+
+    /**
+     * Time span of one partition.
+     */
+    private PartitionInterval interval = PartitionInterval.MONTH;
+
+    /**
+     * Number of partitions created ahead of the current one.
+     */
+    private int premake = DEFAULT_PREMAKE;
+
+    /**
+     * Interval of partition creation runs.
+     */
+    private Duration checkInterval = Duration.ofHours(1);
+}
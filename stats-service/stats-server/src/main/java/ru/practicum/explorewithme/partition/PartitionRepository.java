@@ -0,0 +1,234 @@
+package ru.practicum.explorewithme.partition;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Creates, lists and drops the range partitions of the statistic table.
+ * <p>
+ * Hits whose creation time falls into no range partition, including
+ * hits without one, are kept in the statistic_default partition. When
+ * a range partition is created, the hits of its range are moved there
+ * from the default partition.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class PartitionRepository {
+    /**
+     * Name of the default partition.
+     */
+    static final String DEFAULT_PARTITION = "statistic_default";
+    /**
+     * Partitioned hit table, must match schema.sql.
+     */
+    private static final String CREATE_PARTITIONED_SQL =
+            "CREATE TABLE statistic ("
+                    + "id BIGINT NOT NULL "
+                    + "DEFAULT nextval('statistic_hit_id_seq'), "
+                    + "app_id INTEGER NOT NULL, "
+                    + "uri_id INTEGER NOT NULL, "
+                    + "ip BYTEA NOT NULL, "
+                    + "creation_time TIMESTAMP"
+                    + ") PARTITION BY RANGE (creation_time)";
+    /**
+     * Indexes of the hit table, created on every partition.
+     */
+    private static final List<String> INDEX_SQL = List.of(
+            "CREATE INDEX IF NOT EXISTS idx_statistic_creation_time "
+                    + "ON statistic (creation_time)",
+            "CREATE INDEX IF NOT EXISTS idx_statistic_uri_ip "
+                    + "ON statistic (uri_id, ip)",
+            "CREATE INDEX IF NOT EXISTS idx_statistic_id ON statistic (id)");
+    /**
+     * Columns of the hit table.
+     */
+    private static final String COLUMNS =
+            "id, app_id, uri_id, ip, creation_time";
+    /**
+     * Bounds of a range partition as printed by pg_get_expr.
+     */
+    private static final Pattern BOUNDS = Pattern.compile(
+            "FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+    /**
+     * Format of partition bounds in DDL.
+     */
+    private static final DateTimeFormatter BOUND_FORMAT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /**
+     * JDBC template.
+     */
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns whether the statistic table is partitioned.
+     *
+     * @return true if it is partitioned, false if it is a plain table
+     */
+    public boolean isPartitioned() {
+        String kind = jdbcTemplate.queryForObject("SELECT relkind::text "
+                + "FROM pg_class WHERE oid = to_regclass('statistic')",
+                String.class);
+        return "p".equals(kind);
+    }
+
+    /**
+     * Converts a plain statistic table into a partitioned one, creating
+     * partitions for the whole range of its hits and copying them over.
+     * Runs once, when upgrading from the unpartitioned table.
+     *
+     * @param interval the partition interval
+     */
+    @Transactional
+    public void migrate(final PartitionInterval interval) {
+        jdbcTemplate.execute("LOCK TABLE statistic IN ACCESS EXCLUSIVE MODE");
+        jdbcTemplate.execute("ALTER TABLE statistic RENAME TO statistic_legacy");
+        jdbcTemplate.execute(CREATE_PARTITIONED_SQL);
+        createDefaultPartition();
+        Map<String, Object> range = jdbcTemplate.queryForMap(
+                "SELECT MIN(creation_time) AS first, "
+                        + "MAX(creation_time) AS last FROM statistic_legacy");
+        if (range.get("first") != null) {
+            LocalDateTime last =
+                    ((Timestamp) range.get("last")).toLocalDateTime();
+            for (LocalDateTime start = interval.floor(
+                    ((Timestamp) range.get("first")).toLocalDateTime());
+                 !start.isAfter(last); start = interval.next(start)) {
+                jdbcTemplate.execute("CREATE TABLE " + interval.name(start)
+                        + " PARTITION OF statistic " + forValues(start,
+                        interval.next(start)));
+            }
+        }
+        int rows = jdbcTemplate.update("INSERT INTO statistic (" + COLUMNS
+                + ") SELECT " + COLUMNS + " FROM statistic_legacy");
+        jdbcTemplate.execute("SELECT setval('statistic_hit_id_seq', "
+                + "GREATEST((SELECT MAX(id) FROM statistic), 1))");
+        jdbcTemplate.execute("DROP TABLE statistic_legacy");
+        createIndexes();
+        log.info("Moved {} hits into the partitioned statistic table", rows);
+    }
+
+    /**
+     * Creates the default partition and the indexes when missing.
+     */
+    @Transactional
+    public void ensureDefaultPartitionAndIndexes() {
+        createDefaultPartition();
+        createIndexes();
+    }
+
+    /**
+     * Lists the range partitions of the statistic table.
+     *
+     * @return the partitions ordered by their lower bound
+     */
+    public List<Partition> findPartitions() {
+        List<Partition> partitions = new ArrayList<>();
+        jdbcTemplate.query("SELECT c.relname, "
+                + "pg_get_expr(c.relpartbound, c.oid) AS bound "
+                + "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = 'statistic'::regclass", rs -> {
+                    Matcher bounds = BOUNDS.matcher(rs.getString("bound"));
+                    if (bounds.find()) {
+                        partitions.add(new Partition(rs.getString("relname"),
+                                parseBound(bounds.group(1)),
+                                parseBound(bounds.group(2))));
+                    }
+                });
+        partitions.sort((a, b) -> a.getFrom().compareTo(b.getFrom()));
+        return partitions;
+    }
+
+    /**
+     * Creates a range partition, moving the hits of its range out of the
+     * default partition.
+     *
+     * @param partition the partition
+     */
+    @Transactional
+    public void create(final Partition partition) {
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION
+                + " IN SHARE ROW EXCLUSIVE MODE");
+        jdbcTemplate.execute("CREATE TABLE " + partition.getName()
+                + " (LIKE statistic INCLUDING DEFAULTS)");
+        int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM "
+                        + DEFAULT_PARTITION + " WHERE creation_time >= ? "
+                        + "AND creation_time < ? RETURNING " + COLUMNS + ") "
+                        + "INSERT INTO " + partition.getName() + " ("
+                        + COLUMNS + ") SELECT " + COLUMNS + " FROM moved",
+                Timestamp.valueOf(partition.getFrom()),
+                Timestamp.valueOf(partition.getTo()));
+        jdbcTemplate.execute("ALTER TABLE statistic ATTACH PARTITION "
+                + partition.getName() + " "
+                + forValues(partition.getFrom(), partition.getTo()));
+        log.info("Created partition {}, moved {} hits into it",
+                partition.getName(), moved);
+    }
+
+    /**
+     * Detaches and drops a range partition with all its hits.
+     *
+     * @param partition the partition
+     */
+    @Transactional
+    public void drop(final Partition partition) {
+        jdbcTemplate.execute("ALTER TABLE statistic DETACH PARTITION "
+                + partition.getName());
+        jdbcTemplate.execute("DROP TABLE " + partition.getName());
+        log.info("Dropped partition {}", partition.getName());
+    }
+
+    /**
+     * Creates the default partition when missing.
+     */
+    private void createDefaultPartition() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION
+                + " PARTITION OF statistic DEFAULT");
+    }
+
+    /**
+     * Creates the indexes of the hit table when missing.
+     */
+    private void createIndexes() {
+        INDEX_SQL.forEach(jdbcTemplate::execute);
+    }
+
+    /**
+     * Builds the bound clause of a range partition.
+     *
+     * @param from the inclusive lower bound
+     * @param to   the exclusive upper bound
+     * @return the bound clause
+     */
+    private static String forValues(final LocalDateTime from,
+                                    final LocalDateTime to) {
+        return "FOR VALUES FROM ('" + BOUND_FORMAT.format(from) + "') TO ('"
+                + BOUND_FORMAT.format(to) + "')";
+    }
+
+    /**
+     * Parses a partition bound printed by Postgres.
+     *
+     * @param bound the bound
+     * @return the time
+     */
+    private static LocalDateTime parseBound(final String bound) {
+        return Timestamp.valueOf(bound).toLocalDateTime();
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the time partitioning of the raw hit table
+ * of ExploreWithMe statistics.
+ */
+package ru.practicum.explorewithme.partition;
@@ -0,0 +1,45 @@
+package ru.practicum.explorewithme.reactive;
+
+import lombok.Getter;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Bounded schedulers of the blocking service calls, so that they never
+ * run on the event loop threads. Hits and queries have separate threads,
+ * so that slow queries never hold back the acknowledgement of hits.
+ */
+@Getter
+public class BlockingSchedulers implements DisposableBean {
+    /**
+     * Scheduler of hit ingestion.
+     */
+    private final Scheduler hits;
+    /**
+     * Scheduler of statistic queries.
+     */
+    private final Scheduler queries;
+
+    /**
+     * Creates the schedulers.
+     *
+     * @param properties the reactive mode settings
+     */
+    public BlockingSchedulers(final ReactiveProperties properties) {
+        this.hits = Schedulers.newBoundedElastic(properties.getHitThreads(),
+                properties.getQueueSize(), "stats-hits");
+        this.queries = Schedulers.newBoundedElastic(
+                properties.getQueryThreads(), properties.getQueueSize(),
+                "stats-queries");
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        hits.dispose();
+        queries.dispose();
+    }
+}
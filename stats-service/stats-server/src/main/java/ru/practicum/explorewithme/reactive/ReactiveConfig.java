@@ -0,0 +1,37 @@
+package ru.practicum.explorewithme.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Sets up the reactive deployment mode, enabled with
+ * {@code spring.main.web-application-type=reactive}.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig {
+    /**
+     * Runs WebFlux on Netty. Without this bean Spring Boot would pick
+     * Tomcat, which is on the classpath for the servlet mode.
+     *
+     * @return the web server factory
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Creates the schedulers of blocking service calls.
+     *
+     * @param properties the reactive mode settings
+     * @return the schedulers
+     */
+    @Bean
+    public BlockingSchedulers blockingSchedulers(
+            final ReactiveProperties properties) {
+        return new BlockingSchedulers(properties);
+    }
+}
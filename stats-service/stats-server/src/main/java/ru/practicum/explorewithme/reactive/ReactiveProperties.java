@@ -0,0 +1,44 @@
+package ru.practicum.explorewithme.reactive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the reactive deployment mode.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.reactive")
+public class ReactiveProperties {
+    /**
+     * Default number of threads accepting hits.
+     */
+    private static final int DEFAULT_HIT_THREADS = 32;
+    /**
+     * Default number of threads answering queries, matching the default
+     * size of the connection pool.
+     */
+    private static final int DEFAULT_QUERY_THREADS = 10;
+    /**
+     * Default number of calls waiting for a thread, per scheduler.
+     */
+    private static final int DEFAULT_QUEUE_SIZE = 100_000;
+
+    /**
+     * Number of threads accepting hits. In buffered mode they only wait
+     * for the write-ahead log, and threads waiting together share one
+     * sync.
+     */
+    private int hitThreads = DEFAULT_HIT_THREADS;
+
+    /**
+     * Number of threads answering queries. More threads than database
+     * connections only wait for a connection.
+     */
+    private int queryThreads = DEFAULT_QUERY_THREADS;
+
+    /**
+     * Number of calls waiting for a thread, per scheduler, beyond which
+     * requests are rejected.
+     */
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+}
@@ -0,0 +1,126 @@
+package ru.practicum.explorewithme.reactive;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+import ru.practicum.explorewithme.StatisticRequest;
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.exception.WrongTimeException;
+import ru.practicum.explorewithme.service.StatisticService;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive REST controller for managing statistics, serving the same
+ * endpoints as the servlet controller. Requests are decoded and answered
+ * on the event loop, and only the service calls run on bounded
+ * schedulers.
+ */
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+@Validated
+public class ReactiveStatisticController {
+    /**
+     * REST service for managing statistics.
+     */
+    private final StatisticService service;
+    /**
+     * Schedulers of blocking service calls.
+     */
+    private final BlockingSchedulers schedulers;
+
+    /**
+     * Saves statistical data.
+     *
+     * @param request the statistic request containing data to be saved
+     * @return HttpStatus
+     */
+    @PostMapping("/hit")
+    public Mono<ResponseEntity<Void>> saveStatistic(@Valid @RequestBody
+                                  final StatisticRequest request) {
+        return Mono.fromRunnable(() -> service.saveStatistic(request))
+                .subscribeOn(schedulers.getHits())
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.CREATED)));
+    }
+
+    /**
+     * Saves a batch of statistical data.
+     *
+     * @param requests the statistic requests containing data to be saved
+     * @return HttpStatus
+     */
+    @PostMapping("/hit/batch")
+    public Mono<ResponseEntity<Void>> saveStatistics(@Valid @RequestBody
+                      final List<@Valid StatisticRequest> requests) {
+        return Mono.fromRunnable(() -> service.saveStatistics(requests))
+                .subscribeOn(schedulers.getHits())
+                .then(Mono.just(new ResponseEntity<>(HttpStatus.CREATED)));
+    }
+
+    /**
+     * Retrieves statistics based on query parameters.
+     *
+     * @param start  the start date and time for the statistics
+     * @param end    the end date and time for the statistics
+     * @param uris   the list of URIs to filter the statistics
+     * @param unique whether to consider only unique hits
+     * @param approximate whether unique hits may be estimated
+     *                    with about 1% error, and hits before the raw
+     *                    horizon counted per whole minute; without it,
+     *                    such ranges are rejected
+     * @return the list of statistic responses
+     */
+    @GetMapping("/stats")
+    public Mono<List<StatisticResponse>> getStatistic(
+            @NotNull @RequestParam("start")
+            @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+            final LocalDateTime start,
+            @NotNull @RequestParam("end")
+            @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+            final LocalDateTime end,
+            @RequestParam(value = "uris", required = false)
+            final List<String> uris,
+            @RequestParam(value = "unique", defaultValue = "false")
+            final boolean unique,
+            @RequestParam(value = "approximate", defaultValue = "false")
+            final boolean approximate) {
+        if (!start.isBefore(end)) {
+            return Mono.error(new WrongTimeException(
+                    "Start time must be before end time"));
+        }
+        return Mono.fromCallable(() -> service.getStatistic(start, end, uris,
+                        unique, approximate))
+                .subscribeOn(schedulers.getQueries());
+    }
+
+    /**
+     * Retrieves event views.
+     *
+     * @param uris   the list of URIs
+     * @param approximate whether views may be estimated with about 1% error
+     * @return map event views
+     */
+    @GetMapping("/views")
+    public Mono<Map<Long, Long>> getEventViews(
+            @NotNull @RequestParam("uris") final List<String> uris,
+            @RequestParam(value = "approximate", defaultValue = "false")
+            final boolean approximate) {
+        return Mono.fromCallable(() -> service.getEventViews(uris,
+                        approximate))
+                .subscribeOn(schedulers.getQueries());
+    }
+}
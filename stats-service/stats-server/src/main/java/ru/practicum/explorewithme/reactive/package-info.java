@@ -0,0 +1,5 @@
+/**
+ * This package contains the reactive (WebFlux on Netty) deployment mode
+ * of ExploreWithMe statistics.
+ */
+package ru.practicum.explorewithme.reactive;
@@ -0,0 +1,25 @@
+package ru.practicum.explorewithme.repository;
+
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Custom queries for {@link StatisticEntity} entities.
+ */
+public interface StatisticRepositoryCustom {
+
+    /**
+     * Retrieves statistics with unique IPs within a date range.
+     *
+     * @param start the start datetime
+     * @param end   the end datetime
+     * @param uris  the URIs to count, or null for every URI
+     * @return list of StatisticResponse
+     */
+    List<StatisticResponse> findStatisticsUnique(LocalDateTime start,
+                                                 LocalDateTime end,
+                                                 List<String> uris);
+}
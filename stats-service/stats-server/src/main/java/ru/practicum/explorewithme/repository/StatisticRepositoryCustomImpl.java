@@ -0,0 +1,50 @@
+package ru.practicum.explorewithme.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.dictionary.DictionaryRepository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of the {@link StatisticRepositoryCustom} interface.
+ * Groups the hits by app and URI id and reads the names of the groups
+ * only.
+ */
+@RequiredArgsConstructor
+public class StatisticRepositoryCustomImpl
+        implements StatisticRepositoryCustom {
+    /**
+     * JDBC template.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatisticResponse> findStatisticsUnique(
+            final LocalDateTime start, final LocalDateTime end,
+            final List<String> uris) {
+        MapSqlParameterSource args = new MapSqlParameterSource()
+                .addValue("start", Timestamp.valueOf(start))
+                .addValue("end", Timestamp.valueOf(end));
+        String uriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            args.addValue("uris", uris);
+            uriFilter = " AND " + DictionaryRepository.uriIdIn("uris");
+        }
+        return jdbcTemplate.query(DictionaryRepository.withNames(
+                "SELECT app_id, uri_id, COUNT(DISTINCT ip) AS hits "
+                        + "FROM statistic "
+                        + "WHERE creation_time BETWEEN :start AND :end"
+                        + uriFilter + " GROUP BY app_id, uri_id", "hits")
+                        + " ORDER BY hits DESC", args, (rs, rowNum) ->
+                new StatisticResponse(rs.getString("app"),
+                        rs.getString("uri"), rs.getLong("hits")));
+    }
+}
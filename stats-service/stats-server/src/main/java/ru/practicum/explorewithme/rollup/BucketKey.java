@@ -0,0 +1,43 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+
+/**
+ * Identity of one rollup bucket.
+ */
+@Data
+@AllArgsConstructor
+public class BucketKey {
+    /**
+     * Orders keys so that concurrent writers lock rows in the same order.
+     */
+    public static final Comparator<BucketKey> ORDER = Comparator
+            .comparing(BucketKey::getGranularity)
+            .thenComparing(BucketKey::getBucketStart)
+            .thenComparing(BucketKey::getApp)
+            .thenComparing(BucketKey::getUri);
+
+    /**
+     * The bucket granularity.
+     */
+    private Granularity granularity;
+
+    /**
+     * The bucket start.
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * The name of the application.
+     */
+    private String app;
+
+    /**
+     * The URI of the request.
+     */
+    private String uri;
+}
@@ -0,0 +1,77 @@
+package ru.practicum.explorewithme.rollup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Size of a rollup bucket, from the finest to the coarsest.
+ */
+public enum Granularity {
+    /**
+     * One minute.
+     */
+    MINUTE(ChronoUnit.MINUTES, "minute"),
+    /**
+     * One hour.
+     */
+    HOUR(ChronoUnit.HOURS, "hour"),
+    /**
+     * One day.
+     */
+    DAY(ChronoUnit.DAYS, "day");
+
+    /**
+     * Bucket length.
+     */
+    private final ChronoUnit unit;
+    /**
+     * Postgres date_trunc field of the bucket.
+     */
+    private final String truncField;
+
+    Granularity(final ChronoUnit unit, final String truncField) {
+        this.unit = unit;
+        this.truncField = truncField;
+    }
+
+    /**
+     * Returns the Postgres date_trunc field of the bucket.
+     *
+     * @return the date_trunc field
+     */
+    public String getTruncField() {
+        return truncField;
+    }
+
+    /**
+     * Returns the start of the bucket that contains the time.
+     *
+     * @param time the time
+     * @return the bucket start
+     */
+    public LocalDateTime floor(final LocalDateTime time) {
+        return time.truncatedTo(unit);
+    }
+
+    /**
+     * Returns the first bucket boundary not before the time.
+     *
+     * @param time the time
+     * @return the bucket boundary
+     */
+    public LocalDateTime ceil(final LocalDateTime time) {
+        LocalDateTime floor = floor(time);
+        return floor.equals(time) ? floor : floor.plus(1, unit);
+    }
+
+    /**
+     * Returns the next coarser granularity.
+     *
+     * @return the coarser granularity, or null for the coarsest one
+     */
+    public Granularity coarser() {
+        Granularity[] values = values();
+        int next = ordinal() + 1;
+        return next < values.length ? values[next] : null;
+    }
+}
@@ -0,0 +1,222 @@
+package ru.practicum.explorewithme.rollup;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HyperLogLog sketch of a set of strings with 2^14 registers, giving
+ * a standard error of about 0.8%. Sketches of disjoint or overlapping
+ * sets are merged by taking the register-wise maximum.
+ * <p>
+ * Serialized sketches are sparse (index and value of every non-empty
+ * register) while that is smaller than the dense register array.
+ */
+public class HyperLogLog {
+    /**
+     * Size of the registers of a sketch in memory, in bytes.
+     */
+    public static final int BYTES = 1 << 14;
+    /**
+     * Number of index bits.
+     */
+    private static final int PRECISION = 14;
+    /**
+     * Number of registers, one byte each.
+     */
+    private static final int REGISTERS = BYTES;
+    /**
+     * Bias correction constant for the number of registers.
+     */
+    private static final double ALPHA =
+            0.7213 / (1 + 1.079 / REGISTERS);
+    /**
+     * Estimates up to this multiple of the register count use linear
+     * counting.
+     */
+    private static final double LINEAR_COUNTING_LIMIT = 2.5;
+    /**
+     * Format marker of a dense sketch.
+     */
+    private static final byte DENSE = 0;
+    /**
+     * Format marker of a sparse sketch.
+     */
+    private static final byte SPARSE = 1;
+    /**
+     * Bytes of one sparse register entry.
+     */
+    private static final int SPARSE_ENTRY = 3;
+    /**
+     * FNV-1a 64-bit offset basis.
+     */
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    /**
+     * FNV-1a 64-bit prime.
+     */
+    private static final long FNV_PRIME = 0x100000001b3L;
+    /**
+     * First multiplier of the hash finalizer.
+     */
+    private static final long MIX_1 = 0xff51afd7ed558ccdL;
+    /**
+     * Second multiplier of the hash finalizer.
+     */
+    private static final long MIX_2 = 0xc4ceb9fe1a85ec53L;
+    /**
+     * Shift of the hash finalizer.
+     */
+    private static final int MIX_SHIFT = 33;
+    /**
+     * Mask of an unsigned byte.
+     */
+    private static final int BYTE_MASK = 0xff;
+    /**
+     * Bits in a byte.
+     */
+    private static final int BYTE_BITS = 8;
+
+    /**
+     * Registers holding the maximum observed rank per index.
+     */
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     */
+    public HyperLogLog() {
+        this.registers = new byte[REGISTERS];
+    }
+
+    /**
+     * Restores a sketch from its serialized form.
+     *
+     * @param bytes the serialized sketch, may be null
+     * @return the sketch, empty if the bytes are null
+     */
+    public static HyperLogLog fromBytes(final byte[] bytes) {
+        HyperLogLog sketch = new HyperLogLog();
+        if (bytes == null || bytes.length == 0) {
+            return sketch;
+        }
+        if (bytes[0] == DENSE) {
+            System.arraycopy(bytes, 1, sketch.registers, 0, REGISTERS);
+            return sketch;
+        }
+        for (int i = 1; i + SPARSE_ENTRY <= bytes.length;
+             i += SPARSE_ENTRY) {
+            int index = (bytes[i] & BYTE_MASK) << BYTE_BITS
+                    | bytes[i + 1] & BYTE_MASK;
+            sketch.registers[index] = bytes[i + 2];
+        }
+        return sketch;
+    }
+
+    /**
+     * Adds a value to the sketch.
+     *
+     * @param value the value
+     */
+    public void add(final String value) {
+        addHash(hash(value));
+    }
+
+    /**
+     * Adds a value to the sketch by its {@link #hash(String) hash}.
+     *
+     * @param hash the hash of the value
+     */
+    public void addHash(final long hash) {
+        int index = (int) (hash >>> (Long.SIZE - PRECISION));
+        long rest = hash << PRECISION;
+        int rank = Math.min(Long.numberOfLeadingZeros(rest),
+                Long.SIZE - PRECISION) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this one.
+     *
+     * @param other the other sketch
+     */
+    public void merge(final HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values added.
+     *
+     * @return the estimate
+     */
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA * REGISTERS * REGISTERS / sum;
+        if (estimate <= LINEAR_COUNTING_LIMIT * REGISTERS && zeros > 0) {
+            estimate = REGISTERS * Math.log((double) REGISTERS / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * Serializes the sketch.
+     *
+     * @return the serialized sketch
+     */
+    public byte[] toBytes() {
+        int used = 0;
+        for (byte register : registers) {
+            if (register != 0) {
+                used++;
+            }
+        }
+        if (used * SPARSE_ENTRY >= REGISTERS) {
+            byte[] bytes = new byte[REGISTERS + 1];
+            bytes[0] = DENSE;
+            System.arraycopy(registers, 0, bytes, 1, REGISTERS);
+            return bytes;
+        }
+        ByteArrayOutputStream out =
+                new ByteArrayOutputStream(1 + used * SPARSE_ENTRY);
+        out.write(SPARSE);
+        for (int i = 0; i < REGISTERS; i++) {
+            if (registers[i] != 0) {
+                out.write(i >>> BYTE_BITS);
+                out.write(i & BYTE_MASK);
+                out.write(registers[i]);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Hashes a value to 64 well-mixed bits.
+     *
+     * @param value the value
+     * @return the hash
+     */
+    public static long hash(final String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & BYTE_MASK;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_1;
+        hash ^= hash >>> MIX_SHIFT;
+        hash *= MIX_2;
+        hash ^= hash >>> MIX_SHIFT;
+        return hash;
+    }
+}
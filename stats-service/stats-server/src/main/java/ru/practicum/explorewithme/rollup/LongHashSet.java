@@ -0,0 +1,136 @@
+package ru.practicum.explorewithme.rollup;
+
+import java.util.function.LongConsumer;
+
+/**
+ * Open-addressing set of longs, counting distinct IP hashes without
+ * boxing them. Not thread-safe.
+ */
+public class LongHashSet {
+    /**
+     * Initial number of slots.
+     */
+    private static final int INITIAL_SLOTS = 16;
+    /**
+     * Multiplier spreading keys over the slots.
+     */
+    private static final long SPREAD = 0x9e3779b97f4a7c15L;
+
+    /**
+     * Slots, zero meaning empty.
+     */
+    private long[] slots = new long[INITIAL_SLOTS];
+    /**
+     * Number of non-zero values.
+     */
+    private int size;
+    /**
+     * Whether zero is in the set.
+     */
+    private boolean containsZero;
+
+    /**
+     * Adds a value.
+     *
+     * @param value the value
+     * @return true if the value was not in the set
+     */
+    public boolean add(final long value) {
+        if (value == 0) {
+            boolean added = !containsZero;
+            containsZero = true;
+            return added;
+        }
+        if (2 * (size + 1) > slots.length) {
+            grow();
+        }
+        if (insert(slots, value)) {
+            size++;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Adds every value of another set.
+     *
+     * @param other the other set
+     */
+    public void addAll(final LongHashSet other) {
+        if (other.containsZero) {
+            containsZero = true;
+        }
+        for (long value : other.slots) {
+            if (value != 0) {
+                add(value);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct values added.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size + (containsZero ? 1 : 0);
+    }
+
+    /**
+     * Passes every value to the consumer.
+     *
+     * @param consumer the consumer
+     */
+    public void forEach(final LongConsumer consumer) {
+        if (containsZero) {
+            consumer.accept(0);
+        }
+        for (long value : slots) {
+            if (value != 0) {
+                consumer.accept(value);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of slots, which bounds the memory of the set.
+     *
+     * @return the number of slots
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Doubles the slots.
+     */
+    private void grow() {
+        long[] grown = new long[slots.length * 2];
+        for (long value : slots) {
+            if (value != 0) {
+                insert(grown, value);
+            }
+        }
+        slots = grown;
+    }
+
+    /**
+     * Inserts a non-zero value with linear probing.
+     *
+     * @param table the slots
+     * @param value the value
+     * @return true if the value was not present
+     */
+    private static boolean insert(final long[] table, final long value) {
+        int mask = table.length - 1;
+        int slot = (int) ((value * SPREAD) >>> Integer.SIZE) & mask;
+        while (table[slot] != 0) {
+            if (table[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = value;
+        return true;
+    }
+}
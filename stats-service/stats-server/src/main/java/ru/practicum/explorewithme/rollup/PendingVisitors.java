@@ -0,0 +1,44 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.Getter;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Visitors of the written hits of one hourly bucket that have not been
+ * merged into the stored sketches yet.
+ */
+@Getter
+public class PendingVisitors {
+    /**
+     * Hashes of the visitor IPs.
+     */
+    private final Set<Long> hashes = new HashSet<>();
+    /**
+     * Number of hits the visitors were collected from.
+     */
+    private long hits;
+
+    /**
+     * Adds the visitor of a hit.
+     *
+     * @param hash the {@link HyperLogLog#hash(String) hash} of the IP
+     */
+    public void add(final long hash) {
+        hashes.add(hash);
+        hits++;
+    }
+
+    /**
+     * Adds the visitors of the same bucket collected elsewhere.
+     *
+     * @param other the visitors
+     * @return these visitors
+     */
+    public PendingVisitors addAll(final PendingVisitors other) {
+        hashes.addAll(other.hashes);
+        hits += other.hits;
+        return this;
+    }
+}
@@ -0,0 +1,68 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Decomposition of a query range into whole rollup buckets and the
+ * raw edges that are not covered by a whole bucket.
+ */
+@Getter
+@ToString
+public class QueryPlan {
+    /**
+     * Bucket ranges per granularity. Every range is aligned to its
+     * granularity and has an exclusive end.
+     */
+    private final Map<Granularity, List<TimeRange>> buckets =
+            new EnumMap<>(Granularity.class);
+
+    /**
+     * Ranges read from raw hits.
+     */
+    private final List<TimeRange> raw = new ArrayList<>();
+
+    /**
+     * Whether an edge before the raw horizon was widened to its whole
+     * bucket, so that the plan covers more than the query range.
+     */
+    private boolean widened;
+
+    /**
+     * Adds a range of whole buckets.
+     *
+     * @param granularity the bucket granularity
+     * @param from        the first bucket start
+     * @param to          the end of the last bucket, exclusive
+     */
+    void addBuckets(final Granularity granularity, final LocalDateTime from,
+                    final LocalDateTime to) {
+        buckets.computeIfAbsent(granularity, g -> new ArrayList<>())
+                .add(new TimeRange(from, to, false));
+    }
+
+    /**
+     * Adds a range read from raw hits.
+     *
+     * @param from        the start, inclusive
+     * @param to          the end
+     * @param toInclusive whether the end is inclusive
+     */
+    void addRaw(final LocalDateTime from, final LocalDateTime to,
+                final boolean toInclusive) {
+        raw.add(new TimeRange(from, to, toInclusive));
+    }
+
+    /**
+     * Marks the plan as covering more than the query range.
+     */
+    void markWidened() {
+        widened = true;
+    }
+}
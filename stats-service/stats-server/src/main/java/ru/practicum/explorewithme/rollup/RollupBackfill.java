@@ -0,0 +1,64 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+
+/**
+ * Builds missing rollups and visitor sketches from raw hits on startup,
+ * before the hit buffer and the web server start accepting hits.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RollupBackfill implements SmartLifecycle {
+    /**
+     * Rollup repository.
+     */
+    private final RollupRepository repository;
+    /**
+     * Visitor sketch repository.
+     */
+    private final VisitorSketchRepository sketchRepository;
+    /**
+     * Whether the backfill has run.
+     */
+    private volatile boolean running;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        repository.backfillIfEmpty();
+        sketchRepository.backfillIfMissing();
+        running = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return HitBuffer.PHASE - 1;
+    }
+}
@@ -0,0 +1,111 @@
+package ru.practicum.explorewithme.rollup;
+
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Covers a query range with the coarsest whole rollup buckets that fit,
+ * leaving raw hits only for the partial buckets at the edges.
+ * <p>
+ * Raw hits older than the raw horizon are compacted away, so an edge
+ * before the horizon is covered by its whole bucket instead, which
+ * widens the range to the finest granularity used. Such plans are
+ * {@link QueryPlan#isWidened() marked}, so callers can refuse them.
+ */
+@Component
+public class RollupPlanner {
+
+    /**
+     * Plans a query over a closed time range.
+     *
+     * @param start the start, inclusive
+     * @param end   the end, inclusive
+     * @return the query plan
+     */
+    public QueryPlan plan(final LocalDateTime start, final LocalDateTime end) {
+        return plan(start, end, Granularity.MINUTE);
+    }
+
+    /**
+     * Plans a query over a closed time range using buckets not finer
+     * than the given granularity.
+     *
+     * @param start  the start, inclusive
+     * @param end    the end, inclusive
+     * @param finest the finest granularity to use
+     * @return the query plan
+     */
+    public QueryPlan plan(final LocalDateTime start, final LocalDateTime end,
+                          final Granularity finest) {
+        return plan(start, end, finest, null);
+    }
+
+    /**
+     * Plans a query over a closed time range using buckets not finer
+     * than the given granularity and no raw hits before the raw horizon.
+     *
+     * @param start   the start, inclusive
+     * @param end     the end, inclusive
+     * @param finest  the finest granularity to use
+     * @param rawFrom the raw horizon aligned to the finest granularity,
+     *                or null when every raw hit is kept
+     * @return the query plan
+     */
+    public QueryPlan plan(final LocalDateTime start, final LocalDateTime end,
+                          final Granularity finest,
+                          final LocalDateTime rawFrom) {
+        QueryPlan plan = new QueryPlan();
+        boolean rawStart = rawFrom == null || !start.isBefore(rawFrom);
+        boolean rawEnd = rawFrom == null || !end.isBefore(rawFrom);
+        LocalDateTime from = rawStart
+                ? finest.ceil(start)
+                : finest.floor(start);
+        LocalDateTime to = rawEnd
+                ? finest.floor(end)
+                : finest.ceil(end.plusNanos(1));
+        if (!from.isBefore(to)) {
+            plan.addRaw(start, end, true);
+            return plan;
+        }
+        if (!rawStart && from.isBefore(start)
+                || !rawEnd && to.isAfter(end.plusNanos(1))) {
+            plan.markWidened();
+        }
+        if (start.isBefore(from)) {
+            plan.addRaw(start, from, false);
+        }
+        if (rawEnd) {
+            plan.addRaw(to, end, true);
+        }
+        cover(plan, finest, from, to);
+        return plan;
+    }
+
+    /**
+     * Covers a range aligned to the granularity, preferring coarser
+     * buckets in the middle of the range.
+     *
+     * @param plan        the plan to add to
+     * @param granularity the granularity the range is aligned to
+     * @param from        the range start
+     * @param to          the range end, exclusive
+     */
+    private void cover(final QueryPlan plan, final Granularity granularity,
+                       final LocalDateTime from, final LocalDateTime to) {
+        Granularity coarser = granularity.coarser();
+        LocalDateTime innerFrom = coarser == null ? to : coarser.ceil(from);
+        LocalDateTime innerTo = coarser == null ? to : coarser.floor(to);
+        if (!innerFrom.isBefore(innerTo)) {
+            plan.addBuckets(granularity, from, to);
+            return;
+        }
+        if (from.isBefore(innerFrom)) {
+            plan.addBuckets(granularity, from, innerFrom);
+        }
+        if (innerTo.isBefore(to)) {
+            plan.addBuckets(granularity, innerTo, to);
+        }
+        cover(plan, coarser, innerFrom, innerTo);
+    }
+}
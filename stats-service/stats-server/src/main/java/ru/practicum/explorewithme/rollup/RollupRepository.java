@@ -0,0 +1,187 @@
+package ru.practicum.explorewithme.rollup;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.dictionary.DictionaryRepository;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains and reads the per-minute, per-hour and per-day hit counts
+ * stored in the statistic_rollup table.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class RollupRepository {
+    /**
+     * Upsert of one bucket counter.
+     */
+    private static final String UPSERT_SQL = "INSERT INTO statistic_rollup "
+            + "(granularity, bucket_start, app, uri, hits) "
+            + "VALUES (:granularity, :bucketStart, :app, :uri, :hits) "
+            + "ON CONFLICT (granularity, bucket_start, app, uri) "
+            + "DO UPDATE SET hits = statistic_rollup.hits + EXCLUDED.hits";
+    /**
+     * Rebuild of the counters of one granularity from raw hits.
+     */
+    private static final String BACKFILL_SQL = "INSERT INTO statistic_rollup "
+            + "(app, uri, granularity, bucket_start, hits) "
+            + DictionaryRepository.withNames("SELECT date_trunc('%s', "
+                    + "creation_time) AS bucket_start, app_id, uri_id, "
+                    + "COUNT(*) AS hits FROM statistic "
+                    + "WHERE creation_time IS NOT NULL GROUP BY 1, 2, 3",
+            ":granularity, bucket_start, hits");
+
+    /**
+     * JDBC template.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Adds the hits to the counters of every granularity. Must run in the
+     * transaction that inserts the raw hits, so that rollups never drift
+     * from the raw table.
+     *
+     * @param hits the hits
+     */
+    @Transactional
+    public void add(final List<StatisticEntity> hits) {
+        Map<BucketKey, Long> counters = new HashMap<>();
+        for (StatisticEntity hit : hits) {
+            if (hit.getCreationTime() == null) {
+                continue;
+            }
+            for (Granularity granularity : Granularity.values()) {
+                BucketKey key = new BucketKey(granularity,
+                        granularity.floor(hit.getCreationTime()),
+                        hit.getApp(), hit.getUri());
+                counters.merge(key, 1L, Long::sum);
+            }
+        }
+        if (counters.isEmpty()) {
+            return;
+        }
+        List<BucketKey> keys = new ArrayList<>(counters.keySet());
+        keys.sort(BucketKey.ORDER);
+        MapSqlParameterSource[] args = new MapSqlParameterSource[keys.size()];
+        for (int i = 0; i < keys.size(); i++) {
+            BucketKey key = keys.get(i);
+            args[i] = new MapSqlParameterSource()
+                    .addValue("granularity", key.getGranularity().name())
+                    .addValue("bucketStart",
+                            Timestamp.valueOf(key.getBucketStart()))
+                    .addValue("app", key.getApp())
+                    .addValue("uri", key.getUri())
+                    .addValue("hits", counters.get(key));
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL, args);
+    }
+
+    /**
+     * Builds the rollups from raw hits when the rollup table is empty
+     * and raw hits exist, e.g. after the table has been introduced.
+     * Both tables are locked so that no hit is counted twice.
+     */
+    @Transactional
+    public void backfillIfEmpty() {
+        jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE statistic, "
+                + "statistic_rollup IN SHARE ROW EXCLUSIVE MODE");
+        MapSqlParameterSource noArgs = new MapSqlParameterSource();
+        Boolean rollupExists = jdbcTemplate.queryForObject("SELECT EXISTS "
+                + "(SELECT 1 FROM statistic_rollup)", noArgs, Boolean.class);
+        Boolean rawExists = jdbcTemplate.queryForObject("SELECT EXISTS "
+                + "(SELECT 1 FROM statistic)", noArgs, Boolean.class);
+        if (Boolean.TRUE.equals(rollupExists)
+                || !Boolean.TRUE.equals(rawExists)) {
+            return;
+        }
+        for (Granularity granularity : Granularity.values()) {
+            int rows = jdbcTemplate.update(
+                    String.format(BACKFILL_SQL, granularity.getTruncField()),
+                    new MapSqlParameterSource("granularity",
+                            granularity.name()));
+            log.info("Backfilled {} {} rollup buckets", rows, granularity);
+        }
+    }
+
+    /**
+     * Counts hits per app and URI over the ranges of the plan.
+     *
+     * @param plan the query plan
+     * @param uris the URIs to count, or null for every URI
+     * @return the hit counts ordered by hits descending
+     */
+    public List<StatisticResponse> findHits(final QueryPlan plan,
+                                            final List<String> uris) {
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        String uriFilter = "";
+        String rawUriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            args.addValue("uris", uris);
+            uriFilter = " AND uri IN (:uris)";
+            rawUriFilter = " AND " + DictionaryRepository.uriIdIn("uris");
+        }
+        List<String> parts = new ArrayList<>();
+        List<String> bucketConditions = new ArrayList<>();
+        plan.getBuckets().forEach((granularity, ranges) -> ranges
+                .forEach(range -> bucketConditions.add("(granularity = '"
+                        + granularity.name() + "' AND "
+                        + rangeCondition("bucket_start", range, args) + ")")));
+        if (!bucketConditions.isEmpty()) {
+            parts.add("SELECT app, uri, hits FROM statistic_rollup WHERE ("
+                    + String.join(" OR ", bucketConditions) + ")"
+                    + uriFilter);
+        }
+        List<String> rawConditions = new ArrayList<>();
+        plan.getRaw().forEach(range -> rawConditions
+                .add("(" + rangeCondition("creation_time", range, args)
+                        + ")"));
+        if (!rawConditions.isEmpty()) {
+            parts.add(DictionaryRepository.withNames("SELECT app_id, uri_id, "
+                    + "COUNT(*) AS hits FROM statistic WHERE ("
+                    + String.join(" OR ", rawConditions) + ")"
+                    + rawUriFilter + " GROUP BY app_id, uri_id", "hits"));
+        }
+        if (parts.isEmpty()) {
+            return List.of();
+        }
+        String sql = "SELECT app, uri, SUM(hits) AS hits FROM ("
+                + String.join(" UNION ALL ", parts)
+                + ") counted GROUP BY app, uri ORDER BY hits DESC";
+        return jdbcTemplate.query(sql, args, (rs, rowNum) ->
+                new StatisticResponse(rs.getString("app"),
+                        rs.getString("uri"), rs.getLong("hits")));
+    }
+
+    /**
+     * Builds a range condition on a column and binds its bounds.
+     *
+     * @param column the column
+     * @param range  the range
+     * @param args   the arguments to bind the bounds to
+     * @return the SQL condition
+     */
+    static String rangeCondition(final String column, final TimeRange range,
+                                 final MapSqlParameterSource args) {
+        String from = "from" + args.getParameterNames().length;
+        args.addValue(from, Timestamp.valueOf(range.getFrom()));
+        String to = "to" + args.getParameterNames().length;
+        args.addValue(to, Timestamp.valueOf(range.getTo()));
+        return column + " >= :" + from + " AND " + column
+                + (range.isToInclusive() ? " <= :" : " < :") + to;
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the visitor sketches.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.sketches")
+public class SketchProperties {
+    /**
+     * Interval of merging the visitors collected in memory into the
+     * stored sketches. Estimates lag by up to this interval; visitors
+     * not merged before a crash are rebuilt from raw hits on startup.
+     */
+    private Duration mergeInterval = Duration.ofMinutes(1);
+}
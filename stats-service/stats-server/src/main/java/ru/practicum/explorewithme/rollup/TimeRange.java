@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Time range with an inclusive start.
+ */
+@Data
+@AllArgsConstructor
+public class TimeRange {
+    /**
+     * The start of the range, inclusive.
+     */
+    private LocalDateTime from;
+
+    /**
+     * The end of the range.
+     */
+    private LocalDateTime to;
+
+    /**
+     * Whether the end is inclusive.
+     */
+    private boolean toInclusive;
+}
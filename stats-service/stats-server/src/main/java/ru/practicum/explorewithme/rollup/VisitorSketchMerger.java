@@ -0,0 +1,170 @@
+package ru.practicum.explorewithme.rollup;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+import ru.practicum.explorewithme.model.StatisticEntity;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the visitors of written hits in memory and merges them into
+ * the stored sketches every {@code merge-interval}, in the background.
+ * <p>
+ * A hot URI has its hourly, daily and all-time sketches rewritten once
+ * per interval instead of once per ingested batch. Visitors are kept as
+ * IP hashes per hourly bucket, and adding a visitor twice does not
+ * change a sketch, so a failed merge is simply retried with the next
+ * one. Pending visitors are merged when the application stops. Each
+ * merge also records how many hits of a bucket its sketch covers, so
+ * that the visitors lost in a crash are rebuilt from the raw hits on
+ * the next startup, see {@link VisitorSketchRepository#backfillIfMissing}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class VisitorSketchMerger implements SmartLifecycle {
+    /**
+     * Sketch settings.
+     */
+    private final SketchProperties properties;
+    /**
+     * Visitor sketch repository.
+     */
+    private final VisitorSketchRepository repository;
+    /**
+     * Guards the pending visitors.
+     */
+    private final Object lock = new Object();
+    /**
+     * Visitors per hourly bucket, not merged yet.
+     */
+    private Map<BucketKey, PendingVisitors> pending = new HashMap<>();
+    /**
+     * Runs the periodic merge.
+     */
+    private volatile ScheduledExecutorService merger;
+    /**
+     * Whether the merger is running.
+     */
+    private volatile boolean running;
+
+    /**
+     * Collects the visitors of hits that have been written.
+     *
+     * @param hits the hits
+     */
+    public void add(final List<StatisticEntity> hits) {
+        synchronized (lock) {
+            for (StatisticEntity hit : hits) {
+                if (hit.getCreationTime() == null) {
+                    continue;
+                }
+                pending.computeIfAbsent(new BucketKey(Granularity.HOUR,
+                                Granularity.HOUR.floor(hit.getCreationTime()),
+                                hit.getApp(), hit.getUri()),
+                        key -> new PendingVisitors())
+                        .add(HyperLogLog.hash(hit.getIp()));
+            }
+        }
+    }
+
+    /**
+     * Merges the pending visitors into the stored sketches. Visitors of
+     * a failed merge are kept for the next one.
+     */
+    public void merge() {
+        Map<BucketKey, PendingVisitors> visitors;
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            visitors = pending;
+            pending = new HashMap<>();
+        }
+        try {
+            repository.merge(visitors);
+            log.debug("Merged the visitors of {} hourly buckets",
+                    visitors.size());
+        } catch (RuntimeException e) {
+            synchronized (lock) {
+                visitors.forEach((key, bucket) -> pending.merge(key, bucket,
+                        PendingVisitors::addAll));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void start() {
+        merger = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sketch-merger");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getMergeInterval().toMillis();
+        merger.scheduleWithFixedDelay(this::mergeQuietly, interval, interval,
+                TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void stop() {
+        running = false;
+        merger.shutdown();
+        try {
+            if (!merger.awaitTermination(properties.getMergeInterval()
+                    .toMillis(), TimeUnit.MILLISECONDS)) {
+                log.warn("Sketch merger did not terminate in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        mergeQuietly();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        // Stops after the hit buffer has drained.
+        return HitBuffer.PHASE - 1;
+    }
+
+    /**
+     * Merges and logs failures instead of propagating them,
+     * so that the scheduled merge keeps running.
+     */
+    private void mergeQuietly() {
+        try {
+            merge();
+        } catch (RuntimeException e) {
+            log.warn("Visitor sketch merge failed", e);
+        }
+    }
+}
@@ -0,0 +1,544 @@
+package ru.practicum.explorewithme.rollup;
+
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.dictionary.DictionaryRepository;
+import ru.practicum.explorewithme.model.IpAddresses;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Maintains and reads the HyperLogLog sketches of visitor IPs: hourly
+ * and daily ones next to the counters in the statistic_rollup table,
+ * and an all-time one per app and URI in the visitor_sketch table.
+ * There are no minute sketches, ranges shorter than an hour are
+ * counted from raw hits.
+ * <p>
+ * Sketches are not rewritten for every ingested batch: the
+ * {@link VisitorSketchMerger} collects visitors in memory and merges
+ * them in here once per merge interval. The merged_hits column of an
+ * hourly bucket counts the hits its sketches cover, so a bucket whose
+ * merged hits fall behind its hits has visitors that were never merged.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class VisitorSketchRepository {
+    /**
+     * Maximum number of sketches read in one statement.
+     */
+    private static final int KEYS_PER_SELECT = 100;
+    /**
+     * Number of rebuilt sketches merged at once.
+     */
+    private static final int REBUILD_BATCH = 500;
+    /**
+     * Fetch size of the rebuild scan.
+     */
+    private static final int REBUILD_FETCH_SIZE = 10_000;
+    /**
+     * Update of one bucket sketch.
+     */
+    private static final String UPDATE_SQL = "UPDATE statistic_rollup "
+            + "SET visitors = :visitors WHERE granularity = :granularity "
+            + "AND bucket_start = :bucketStart AND app = :app AND uri = :uri";
+    /**
+     * Accounting of the hits merged into one hourly bucket.
+     */
+    private static final String ADD_MERGED_SQL = "UPDATE statistic_rollup "
+            + "SET merged_hits = merged_hits + :hits WHERE granularity = "
+            + "'HOUR' AND bucket_start = :bucketStart AND app = :app "
+            + "AND uri = :uri";
+    /**
+     * Creation of an empty all-time sketch, so that it can be locked.
+     */
+    private static final String CREATE_ALL_TIME_SQL = "INSERT INTO "
+            + "visitor_sketch (app, uri, visitors) VALUES (:app, :uri, "
+            + ":visitors) ON CONFLICT (app, uri) DO NOTHING";
+    /**
+     * Update of one all-time sketch.
+     */
+    private static final String UPDATE_ALL_TIME_SQL = "UPDATE visitor_sketch "
+            + "SET visitors = :visitors WHERE app = :app AND uri = :uri";
+
+    /**
+     * JDBC template.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Merges visitors into the hourly, daily and all-time sketches and
+     * adds their hits to the merged hits of the hourly buckets. The
+     * bucket rows must exist, i.e. the counters of the hits must have
+     * been committed.
+     *
+     * @param visitors the visitors per hourly bucket
+     */
+    @Transactional
+    public void merge(final Map<BucketKey, PendingVisitors> visitors) {
+        List<BucketKey> hours = new ArrayList<>(visitors.keySet());
+        hours.sort(BucketKey.ORDER);
+        for (int from = 0; from < hours.size(); from += KEYS_PER_SELECT) {
+            Map<BucketKey, HyperLogLog> buckets = new HashMap<>();
+            Map<List<String>, HyperLogLog> allTime = new HashMap<>();
+            for (BucketKey hour : hours.subList(from,
+                    Math.min(from + KEYS_PER_SELECT, hours.size()))) {
+                List<HyperLogLog> sketches = List.of(
+                        buckets.computeIfAbsent(hour,
+                                key -> new HyperLogLog()),
+                        buckets.computeIfAbsent(new BucketKey(
+                                        Granularity.DAY,
+                                        Granularity.DAY.floor(
+                                                hour.getBucketStart()),
+                                        hour.getApp(), hour.getUri()),
+                                key -> new HyperLogLog()),
+                        allTime.computeIfAbsent(
+                                List.of(hour.getApp(), hour.getUri()),
+                                key -> new HyperLogLog()));
+                for (long hash : visitors.get(hour).getHashes()) {
+                    sketches.forEach(sketch -> sketch.addHash(hash));
+                }
+            }
+            mergeBuckets(buckets);
+            mergeAllTime(allTime);
+        }
+        jdbcTemplate.batchUpdate(ADD_MERGED_SQL, hours.stream()
+                .map(hour -> new MapSqlParameterSource()
+                        .addValue("hits", visitors.get(hour).getHits())
+                        .addValue("bucketStart",
+                                Timestamp.valueOf(hour.getBucketStart()))
+                        .addValue("app", hour.getApp())
+                        .addValue("uri", hour.getUri()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Rebuilds the sketches from raw hits when some hourly or daily
+     * bucket has none, e.g. after sketches have been introduced, or
+     * when some hourly bucket has hits whose visitors were collected in
+     * memory but never merged, e.g. after a crash. Only the days from
+     * the first such bucket on are rebuilt, and the rebuilt sketches are
+     * merged into the stored ones, so that buckets whose raw hits have
+     * been compacted keep their visitors. The all-time sketches are
+     * built from the daily ones when there are none. Every table is
+     * locked so that no hit is missed.
+     */
+    @Transactional
+    public void backfillIfMissing() {
+        jdbcTemplate.getJdbcTemplate().execute("LOCK TABLE statistic, "
+                + "statistic_rollup, visitor_sketch "
+                + "IN SHARE ROW EXCLUSIVE MODE");
+        Timestamp missing = jdbcTemplate.queryForObject("SELECT "
+                + "min(bucket_start) FROM statistic_rollup WHERE (granularity "
+                + "IN ('HOUR', 'DAY') AND visitors IS NULL) OR (granularity "
+                + "= 'HOUR' AND merged_hits < hits)",
+                new MapSqlParameterSource(), Timestamp.class);
+        Boolean noAllTime = jdbcTemplate.queryForObject("SELECT NOT EXISTS "
+                + "(SELECT 1 FROM visitor_sketch)",
+                new MapSqlParameterSource(), Boolean.class);
+        if (missing == null && !Boolean.TRUE.equals(noAllTime)) {
+            return;
+        }
+        LocalDateTime from = null;
+        if (missing != null) {
+            from = Granularity.DAY.floor(missing.toLocalDateTime());
+            rebuildBuckets(from);
+        }
+        mergeDaysIntoAllTime(Boolean.TRUE.equals(noAllTime) ? null : from);
+    }
+
+    /**
+     * Estimates all-time unique visitors per app and URI. Reads one
+     * sketch per app and URI, whatever the age of the hits.
+     *
+     * @param uris the URIs to count, or null for every URI
+     * @return the estimated unique hits ordered by hits descending
+     */
+    public List<StatisticResponse> findUniqueAllTime(final List<String> uris) {
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        String uriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            args.addValue("uris", uris);
+            uriFilter = " WHERE uri IN (:uris)";
+        }
+        List<StatisticResponse> statistics = new ArrayList<>();
+        jdbcTemplate.query("SELECT app, uri, visitors FROM visitor_sketch"
+                + uriFilter, args, (RowCallbackHandler) rs ->
+                statistics.add(new StatisticResponse(rs.getString("app"),
+                        rs.getString("uri"), HyperLogLog.fromBytes(
+                                rs.getBytes("visitors")).estimate())));
+        statistics.sort(Comparator.comparingLong(StatisticResponse::getHits)
+                .reversed());
+        return statistics;
+    }
+
+    /**
+     * Estimates unique visitors per app and URI over the ranges of the
+     * plan. The plan must not use buckets finer than an hour.
+     *
+     * @param plan the query plan
+     * @param uris the URIs to count, or null for every URI
+     * @return the estimated unique hits ordered by hits descending
+     */
+    public List<StatisticResponse> findUnique(final QueryPlan plan,
+                                              final List<String> uris) {
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        String uriFilter = "";
+        String rawUriFilter = "";
+        if (uris != null && !uris.isEmpty()) {
+            args.addValue("uris", uris);
+            uriFilter = " AND uri IN (:uris)";
+            rawUriFilter = " AND " + DictionaryRepository.uriIdIn("uris");
+        }
+        Map<String, Map<String, HyperLogLog>> sketches = new HashMap<>();
+        List<String> bucketConditions = new ArrayList<>();
+        plan.getBuckets().forEach((granularity, ranges) -> ranges
+                .forEach(range -> bucketConditions.add("(granularity = '"
+                        + granularity.name() + "' AND "
+                        + RollupRepository.rangeCondition("bucket_start",
+                        range, args) + ")")));
+        if (!bucketConditions.isEmpty()) {
+            jdbcTemplate.query("SELECT app, uri, visitors "
+                    + "FROM statistic_rollup WHERE ("
+                    + String.join(" OR ", bucketConditions) + ")"
+                    + uriFilter, args, (RowCallbackHandler) rs ->
+                    sketch(sketches, rs).merge(
+                            HyperLogLog.fromBytes(rs.getBytes("visitors"))));
+        }
+        List<String> rawConditions = new ArrayList<>();
+        plan.getRaw().forEach(range -> rawConditions.add("("
+                + RollupRepository.rangeCondition("creation_time", range,
+                args) + ")"));
+        if (!rawConditions.isEmpty()) {
+            jdbcTemplate.query(DictionaryRepository.withNames(
+                    "SELECT DISTINCT app_id, uri_id, ip FROM statistic "
+                    + "WHERE (" + String.join(" OR ", rawConditions) + ")"
+                    + rawUriFilter, "ip"), args, (RowCallbackHandler) rs ->
+                    sketch(sketches, rs).add(
+                            IpAddresses.decode(rs.getBytes("ip"))));
+        }
+        List<StatisticResponse> statistics = new ArrayList<>();
+        sketches.forEach((app, byUri) -> byUri.forEach((uri, sketch) ->
+                statistics.add(new StatisticResponse(app, uri,
+                        sketch.estimate()))));
+        statistics.sort(Comparator.comparingLong(StatisticResponse::getHits)
+                .reversed());
+        return statistics;
+    }
+
+    /**
+     * Returns the sketch of the app and URI of the current row.
+     *
+     * @param sketches the sketches by app and URI
+     * @param rs       the result set
+     * @return the sketch
+     * @throws SQLException if a column cannot be read
+     */
+    private static HyperLogLog sketch(
+            final Map<String, Map<String, HyperLogLog>> sketches,
+            final ResultSet rs) throws SQLException {
+        return sketches.computeIfAbsent(rs.getString("app"),
+                        app -> new HashMap<>())
+                .computeIfAbsent(rs.getString("uri"),
+                        uri -> new HyperLogLog());
+    }
+
+    /**
+     * Merges bucket sketches with the stored ones and writes them.
+     *
+     * @param sketches the sketches by bucket
+     */
+    private void mergeBuckets(final Map<BucketKey, HyperLogLog> sketches) {
+        List<BucketKey> keys = new ArrayList<>(sketches.keySet());
+        keys.sort(BucketKey.ORDER);
+        for (int from = 0; from < keys.size(); from += KEYS_PER_SELECT) {
+            mergeStored(keys.subList(from,
+                    Math.min(from + KEYS_PER_SELECT, keys.size())), sketches);
+        }
+        jdbcTemplate.batchUpdate(UPDATE_SQL, keys.stream()
+                .map(key -> updateArgs(key, sketches.get(key)))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Merges the stored sketches of the buckets into the given ones,
+     * locking the bucket rows until the end of the transaction.
+     *
+     * @param keys     the buckets
+     * @param sketches the sketches to merge into
+     */
+    private void mergeStored(final List<BucketKey> keys,
+                             final Map<BucketKey, HyperLogLog> sketches) {
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        List<String> tuples = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            BucketKey key = keys.get(i);
+            args.addValue("g" + i, key.getGranularity().name())
+                    .addValue("b" + i, Timestamp.valueOf(key.getBucketStart()))
+                    .addValue("a" + i, key.getApp())
+                    .addValue("u" + i, key.getUri());
+            tuples.add("(:g" + i + ", :b" + i + ", :a" + i + ", :u" + i + ")");
+        }
+        jdbcTemplate.query("SELECT granularity, bucket_start, app, uri, "
+                + "visitors FROM statistic_rollup "
+                + "WHERE (granularity, bucket_start, app, uri) IN ("
+                + String.join(", ", tuples) + ") FOR UPDATE", args,
+                (RowCallbackHandler) rs -> {
+                    BucketKey key = new BucketKey(
+                            Granularity.valueOf(rs.getString("granularity")),
+                            rs.getTimestamp("bucket_start").toLocalDateTime(),
+                            rs.getString("app"), rs.getString("uri"));
+                    HyperLogLog sketch = sketches.get(key);
+                    if (sketch != null) {
+                        sketch.merge(HyperLogLog.fromBytes(
+                                rs.getBytes("visitors")));
+                    }
+                });
+    }
+
+    /**
+     * Merges all-time sketches with the stored ones and writes them.
+     * Missing sketches are created first, so that every sketch is
+     * locked while it is merged.
+     *
+     * @param sketches the sketches by app and URI
+     */
+    private void mergeAllTime(final Map<List<String>, HyperLogLog> sketches) {
+        if (sketches.isEmpty()) {
+            return;
+        }
+        List<List<String>> keys = new ArrayList<>(sketches.keySet());
+        keys.sort(Comparator.comparing((List<String> key) -> key.get(0))
+                .thenComparing(key -> key.get(1)));
+        byte[] empty = new HyperLogLog().toBytes();
+        jdbcTemplate.batchUpdate(CREATE_ALL_TIME_SQL, keys.stream()
+                .map(key -> allTimeArgs(key, empty))
+                .toArray(MapSqlParameterSource[]::new));
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        List<String> tuples = new ArrayList<>(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            args.addValue("a" + i, keys.get(i).get(0))
+                    .addValue("u" + i, keys.get(i).get(1));
+            tuples.add("(:a" + i + ", :u" + i + ")");
+        }
+        jdbcTemplate.query("SELECT app, uri, visitors FROM visitor_sketch "
+                + "WHERE (app, uri) IN (" + String.join(", ", tuples)
+                + ") ORDER BY app, uri FOR UPDATE", args,
+                (RowCallbackHandler) rs -> sketches.get(List.of(
+                                rs.getString("app"), rs.getString("uri")))
+                        .merge(HyperLogLog.fromBytes(
+                                rs.getBytes("visitors"))));
+        jdbcTemplate.batchUpdate(UPDATE_ALL_TIME_SQL, keys.stream()
+                .map(key -> allTimeArgs(key, sketches.get(key).toBytes()))
+                .toArray(MapSqlParameterSource[]::new));
+    }
+
+    /**
+     * Merges the visitors of the raw hits of the days into the hourly
+     * and daily sketches and marks every hit of the rebuilt hourly
+     * buckets as merged.
+     *
+     * @param from the first day to rebuild
+     */
+    private void rebuildBuckets(final LocalDateTime from) {
+        SketchRebuilder rebuilder = new SketchRebuilder();
+        jdbcTemplate.getJdbcTemplate().query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    DictionaryRepository.withNames("SELECT date_trunc("
+                            + "'hour', creation_time) AS bucket_start, "
+                            + "app_id, uri_id, ip FROM statistic "
+                            + "WHERE creation_time >= ? "
+                            + "GROUP BY 1, 2, 3, 4", "bucket_start, ip")
+                            + " ORDER BY r.app_id, r.uri_id, bucket_start");
+            statement.setTimestamp(1, Timestamp.valueOf(from));
+            statement.setFetchSize(REBUILD_FETCH_SIZE);
+            return statement;
+        }, rebuilder);
+        rebuilder.finish();
+        jdbcTemplate.update("UPDATE statistic_rollup SET merged_hits = hits "
+                        + "WHERE granularity = 'HOUR' AND bucket_start >= :from",
+                new MapSqlParameterSource("from", Timestamp.valueOf(from)));
+        log.info("Rebuilt {} visitor sketches from {}", rebuilder.written,
+                from);
+    }
+
+    /**
+     * Merges the daily sketches into the all-time ones.
+     *
+     * @param from the first day to merge, or null for every day
+     */
+    private void mergeDaysIntoAllTime(final LocalDateTime from) {
+        MapSqlParameterSource args = new MapSqlParameterSource();
+        String dayFilter = "";
+        if (from != null) {
+            args.addValue("from", Timestamp.valueOf(from));
+            dayFilter = " AND bucket_start >= :from";
+        }
+        Map<List<String>, HyperLogLog> sketches = new HashMap<>();
+        jdbcTemplate.query("SELECT app, uri, visitors FROM statistic_rollup "
+                + "WHERE granularity = 'DAY' AND visitors IS NOT NULL"
+                + dayFilter + " ORDER BY app, uri", args,
+                (RowCallbackHandler) rs -> {
+                    List<String> key = List.of(rs.getString("app"),
+                            rs.getString("uri"));
+                    if (!sketches.containsKey(key)
+                            && sketches.size() >= KEYS_PER_SELECT) {
+                        mergeAllTime(sketches);
+                        sketches.clear();
+                    }
+                    sketches.computeIfAbsent(key, k -> new HyperLogLog())
+                            .merge(HyperLogLog.fromBytes(
+                                    rs.getBytes("visitors")));
+                });
+        mergeAllTime(sketches);
+        log.info("Merged daily visitor sketches from {} into the all-time "
+                + "ones", from == null ? "the first day" : from);
+    }
+
+    /**
+     * Builds the arguments of a sketch update.
+     *
+     * @param key    the bucket
+     * @param sketch the sketch
+     * @return the arguments
+     */
+    private static MapSqlParameterSource updateArgs(final BucketKey key,
+                                                    final HyperLogLog sketch) {
+        return new MapSqlParameterSource()
+                .addValue("visitors", sketch.toBytes())
+                .addValue("granularity", key.getGranularity().name())
+                .addValue("bucketStart", Timestamp.valueOf(key.getBucketStart()))
+                .addValue("app", key.getApp())
+                .addValue("uri", key.getUri());
+    }
+
+    /**
+     * Builds the arguments of an all-time sketch statement.
+     *
+     * @param key      the app and URI
+     * @param visitors the serialized sketch
+     * @return the arguments
+     */
+    private static MapSqlParameterSource allTimeArgs(final List<String> key,
+                                                     final byte[] visitors) {
+        return new MapSqlParameterSource()
+                .addValue("app", key.get(0))
+                .addValue("uri", key.get(1))
+                .addValue("visitors", visitors);
+    }
+
+    /**
+     * Consumes distinct (hour, app, uri, ip) rows ordered by app, uri and
+     * hour, and merges the hourly and daily sketches into the stored ones
+     * as they complete.
+     */
+    private final class SketchRebuilder implements RowCallbackHandler {
+        /**
+         * Completed sketches waiting to be merged.
+         */
+        private final Map<BucketKey, HyperLogLog> pending = new HashMap<>();
+        /**
+         * Current hourly bucket.
+         */
+        private BucketKey hourKey;
+        /**
+         * Sketch of the current hourly bucket.
+         */
+        private HyperLogLog hourSketch;
+        /**
+         * Current daily bucket.
+         */
+        private BucketKey dayKey;
+        /**
+         * Sketch of the current daily bucket.
+         */
+        private HyperLogLog daySketch;
+        /**
+         * Number of sketches written.
+         */
+        private long written;
+
+        /**
+         * {@inheritDoc}
+         */
+        @Override
+        public void processRow(final ResultSet rs) throws SQLException {
+            String app = rs.getString("app");
+            String uri = rs.getString("uri");
+            Timestamp hour = rs.getTimestamp("bucket_start");
+            BucketKey nextHour = new BucketKey(Granularity.HOUR,
+                    hour.toLocalDateTime(), app, uri);
+            BucketKey nextDay = new BucketKey(Granularity.DAY,
+                    Granularity.DAY.floor(hour.toLocalDateTime()), app, uri);
+            if (!Objects.equals(nextHour, hourKey)) {
+                write(hourKey, hourSketch);
+                hourKey = nextHour;
+                hourSketch = new HyperLogLog();
+            }
+            if (!Objects.equals(nextDay, dayKey)) {
+                write(dayKey, daySketch);
+                dayKey = nextDay;
+                daySketch = new HyperLogLog();
+            }
+            String ip = IpAddresses.decode(rs.getBytes("ip"));
+            hourSketch.add(ip);
+            daySketch.add(ip);
+        }
+
+        /**
+         * Writes the last buckets and every pending update.
+         */
+        void finish() {
+            write(hourKey, hourSketch);
+            write(dayKey, daySketch);
+            send();
+        }
+
+        /**
+         * Queues the merge of a completed bucket.
+         *
+         * @param key    the bucket, null before the first row
+         * @param sketch the sketch
+         */
+        private void write(final BucketKey key, final HyperLogLog sketch) {
+            if (key == null) {
+                return;
+            }
+            pending.put(key, sketch);
+            written++;
+            if (pending.size() >= REBUILD_BATCH) {
+                send();
+            }
+        }
+
+        /**
+         * Merges the pending sketches.
+         */
+        private void send() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            mergeBuckets(pending);
+            pending.clear();
+        }
+    }
+}
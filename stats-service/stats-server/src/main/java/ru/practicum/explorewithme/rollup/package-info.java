@@ -0,0 +1,5 @@
+/**
+ * This package contains the time-bucketed hit rollups and the planner
+ * that answers statistics queries from them for ExploreWithMe.
+ */
+package ru.practicum.explorewithme.rollup;
@@ -0,0 +1,352 @@
+package ru.practicum.explorewithme.segment;
+
+import ru.practicum.explorewithme.rollup.LongHashSet;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory-mapped segment file of hits, stored column by column:
+ * creation time in epoch milliseconds, target id and IP hash.
+ * <p>
+ * A header holds the capacity, the number of hits, the minimum and
+ * maximum creation time and whether the segment is sealed. Hits are
+ * appended by one writer at a time until the segment is full, then it
+ * is sealed and never changes again. Readers scan the hits published
+ * by the count without locking.
+ */
+class Segment implements AutoCloseable {
+    /**
+     * Marks a segment file.
+     */
+    private static final int MAGIC = 0x45574d53;
+    /**
+     * Offset of the magic number.
+     */
+    private static final int MAGIC_OFFSET = 0;
+    /**
+     * Offset of the capacity.
+     */
+    private static final int CAPACITY_OFFSET = 4;
+    /**
+     * Offset of the number of hits.
+     */
+    private static final int COUNT_OFFSET = 8;
+    /**
+     * Offset of the sealed flag.
+     */
+    private static final int SEALED_OFFSET = 12;
+    /**
+     * Offset of the minimum creation time.
+     */
+    private static final int MIN_TIME_OFFSET = 16;
+    /**
+     * Offset of the maximum creation time.
+     */
+    private static final int MAX_TIME_OFFSET = 24;
+    /**
+     * Size of the header.
+     */
+    private static final int HEADER_BYTES = 64;
+    /**
+     * Bytes of one hit over all columns.
+     */
+    private static final int ROW_BYTES =
+            Long.BYTES + Integer.BYTES + Long.BYTES;
+    /**
+     * Maximum number of hits, so that the file fits in one mapping.
+     */
+    static final int MAX_CAPACITY =
+            (Integer.MAX_VALUE - HEADER_BYTES) / ROW_BYTES;
+    /**
+     * Number of hits copied out of the columns at once by a scan.
+     */
+    private static final int BLOCK = 1024;
+
+    /**
+     * Segment file.
+     */
+    private final Path path;
+    /**
+     * Mapped file.
+     */
+    private final MappedByteBuffer buffer;
+    /**
+     * Creation time column.
+     */
+    private final LongBuffer times;
+    /**
+     * Target id column.
+     */
+    private final IntBuffer targets;
+    /**
+     * IP hash column.
+     */
+    private final LongBuffer ips;
+    /**
+     * Maximum number of hits.
+     */
+    private final int capacity;
+    /**
+     * Number of hits visible to readers.
+     */
+    private volatile int count;
+    /**
+     * Minimum creation time.
+     */
+    private volatile long minTime;
+    /**
+     * Maximum creation time.
+     */
+    private volatile long maxTime;
+    /**
+     * Whether the segment is sealed.
+     */
+    private volatile boolean sealed;
+
+    /**
+     * Maps a segment file.
+     *
+     * @param path     the file
+     * @param capacity the capacity of a new file, ignored for an existing
+     *                 one
+     * @param create   whether to create a new file
+     */
+    private Segment(final Path path, final int capacity,
+                    final boolean create) {
+        this.path = path;
+        try (FileChannel channel = create
+                ? FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(path, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            int rows = create ? capacity : readCapacity(channel);
+            if (rows < 1 || rows > MAX_CAPACITY) {
+                throw new IllegalArgumentException("Segment capacity of "
+                        + path + " must be between 1 and " + MAX_CAPACITY
+                        + ", was " + rows);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) rows * ROW_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (create) {
+            buffer.putInt(MAGIC_OFFSET, MAGIC);
+            buffer.putInt(CAPACITY_OFFSET, capacity);
+            buffer.putLong(MIN_TIME_OFFSET, Long.MAX_VALUE);
+            buffer.putLong(MAX_TIME_OFFSET, Long.MIN_VALUE);
+        } else if (buffer.getInt(MAGIC_OFFSET) != MAGIC) {
+            throw new IllegalStateException("Not a segment file: " + path);
+        }
+        this.capacity = buffer.getInt(CAPACITY_OFFSET);
+        this.count = buffer.getInt(COUNT_OFFSET);
+        this.sealed = buffer.getInt(SEALED_OFFSET) != 0;
+        this.minTime = buffer.getLong(MIN_TIME_OFFSET);
+        this.maxTime = buffer.getLong(MAX_TIME_OFFSET);
+        long timesAt = HEADER_BYTES;
+        long targetsAt = timesAt + (long) this.capacity * Long.BYTES;
+        long ipsAt = targetsAt + (long) this.capacity * Integer.BYTES;
+        times = column(timesAt, (long) this.capacity * Long.BYTES)
+                .asLongBuffer();
+        targets = column(targetsAt, (long) this.capacity * Integer.BYTES)
+                .asIntBuffer();
+        ips = column(ipsAt, (long) this.capacity * Long.BYTES)
+                .asLongBuffer();
+    }
+
+    /**
+     * Creates a new, empty segment file.
+     *
+     * @param path     the file
+     * @param capacity the maximum number of hits
+     * @return the segment
+     */
+    static Segment create(final Path path, final int capacity) {
+        return new Segment(path, capacity, true);
+    }
+
+    /**
+     * Maps an existing segment file.
+     *
+     * @param path the file
+     * @return the segment
+     */
+    static Segment open(final Path path) {
+        return new Segment(path, 0, false);
+    }
+
+    /**
+     * Appends a hit. Callers must not append concurrently.
+     *
+     * @param time     the creation time in epoch milliseconds
+     * @param targetId the target id
+     * @param ipHash   the IP hash
+     * @return false if the segment is full or sealed
+     */
+    boolean append(final long time, final int targetId, final long ipHash) {
+        int row = count;
+        if (sealed || row == capacity) {
+            return false;
+        }
+        times.put(row, time);
+        targets.put(row, targetId);
+        ips.put(row, ipHash);
+        if (time < minTime) {
+            minTime = time;
+            buffer.putLong(MIN_TIME_OFFSET, time);
+        }
+        if (time > maxTime) {
+            maxTime = time;
+            buffer.putLong(MAX_TIME_OFFSET, time);
+        }
+        buffer.putInt(COUNT_OFFSET, row + 1);
+        count = row + 1;
+        return true;
+    }
+
+    /**
+     * Seals the segment and forces it to disk.
+     */
+    void seal() {
+        buffer.putInt(SEALED_OFFSET, 1);
+        sealed = true;
+        force();
+    }
+
+    /**
+     * Forces the segment to disk.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Returns the number of hits visible to readers.
+     *
+     * @return the number of hits
+     */
+    int count() {
+        return count;
+    }
+
+    /**
+     * Returns whether the segment is sealed.
+     *
+     * @return true if sealed
+     */
+    boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Returns the segment file.
+     *
+     * @return the file
+     */
+    Path path() {
+        return path;
+    }
+
+    /**
+     * Counts the hits of the first rows created within a closed range,
+     * per group of their target. Segments entirely outside the range are
+     * skipped by their time index. Columns are copied out block by block
+     * and filtered by a branch-free loop, which the JIT compiles to
+     * vector instructions.
+     *
+     * @param from     the start in epoch milliseconds, inclusive
+     * @param to       the end in epoch milliseconds, inclusive
+     * @param rows     the number of rows to scan
+     * @param groupOf  the group of every target id, negative to skip
+     * @param hits     the hit counts per group to add to
+     * @param visitors the IP hashes per group to add to, or null when
+     *                 only hits are counted
+     */
+    void scan(final long from, final long to, final int rows,
+              final int[] groupOf, final long[] hits,
+              final LongHashSet[] visitors) {
+        if (rows == 0 || maxTime < from || minTime > to) {
+            return;
+        }
+        boolean inRange = from <= minTime && maxTime <= to;
+        long[] timeBlock = new long[BLOCK];
+        int[] targetBlock = new int[BLOCK];
+        long[] ipBlock = visitors == null ? null : new long[BLOCK];
+        int[] selected = new int[BLOCK];
+        for (int base = 0; base < rows; base += BLOCK) {
+            int length = Math.min(BLOCK, rows - base);
+            targets.get(base, targetBlock, 0, length);
+            if (ipBlock != null) {
+                ips.get(base, ipBlock, 0, length);
+            }
+            int matches = length;
+            if (!inRange) {
+                times.get(base, timeBlock, 0, length);
+                matches = 0;
+                for (int i = 0; i < length; i++) {
+                    long time = timeBlock[i];
+                    selected[matches] = i;
+                    matches += time >= from & time <= to ? 1 : 0;
+                }
+            }
+            for (int j = 0; j < matches; j++) {
+                int i = inRange ? j : selected[j];
+                int target = targetBlock[i];
+                int group = target < groupOf.length ? groupOf[target] : -1;
+                if (group < 0) {
+                    continue;
+                }
+                hits[group]++;
+                if (visitors != null) {
+                    if (visitors[group] == null) {
+                        visitors[group] = new LongHashSet();
+                    }
+                    visitors[group].add(ipBlock[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() {
+        force();
+    }
+
+    /**
+     * Reads the capacity from the header of an existing file.
+     *
+     * @param channel the file
+     * @return the capacity
+     * @throws IOException if the file cannot be read
+     */
+    private static int readCapacity(final FileChannel channel)
+            throws IOException {
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN).getInt(CAPACITY_OFFSET);
+    }
+
+    /**
+     * Slices a column out of the mapped file.
+     *
+     * @param offset the offset of the column
+     * @param length the length of the column
+     * @return the column bytes
+     */
+    private ByteBuffer column(final long offset, final long length) {
+        return buffer.slice(Math.toIntExact(offset),
+                Math.toIntExact(length)).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
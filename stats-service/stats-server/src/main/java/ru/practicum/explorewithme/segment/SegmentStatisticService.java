@@ -0,0 +1,114 @@
+package ru.practicum.explorewithme.segment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.practicum.explorewithme.StatisticRequest;
+import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.ingest.HitClock;
+import ru.practicum.explorewithme.model.StatisticEntity;
+import ru.practicum.explorewithme.model.StatisticMapper;
+import ru.practicum.explorewithme.service.StatisticService;
+import ru.practicum.explorewithme.views.EventUris;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Implementation of the {@link StatisticService} interface on the
+ * segment store, selected by {@code stats.storage.engine=segment}.
+ * Statistics are exact scans and event views are read from the views
+ * the store keeps in memory, so the approximate flags are ignored.
+ * The Postgres components are not created in this mode, and the
+ * {@code segment} profile also leaves out the data source.
+ */
+@Service
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "segment")
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentStatisticService implements StatisticService {
+    /**
+     * Segment store.
+     */
+    private final SegmentStore store;
+    /**
+     * Resolves hit creation times.
+     */
+    private final HitClock hitClock;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveStatistic(final StatisticRequest request) {
+        saveStatistics(List.of(request));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveStatistics(final List<StatisticRequest> requests) {
+        LocalDateTime now = LocalDateTime.now();
+        List<StatisticEntity> hits = new ArrayList<>(requests.size());
+        for (StatisticRequest request : requests) {
+            StatisticEntity hit = StatisticMapper.toEntity(request);
+            hit.setCreationTime(hitClock.resolve(hit.getCreationTime(), now));
+            hits.add(hit);
+        }
+        store.append(hits);
+        log.debug("{} statistics appended", hits.size());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<StatisticResponse> getStatistic(final LocalDateTime start,
+                                                final LocalDateTime end,
+                                                final List<String> uris,
+                                                final boolean unique,
+                                                final boolean approximate) {
+        Set<String> wanted = uris == null || uris.isEmpty()
+                ? null : new HashSet<>(uris);
+        Map<Target, Long> counts = store.count(start, end, target ->
+                wanted == null || wanted.contains(target.getUri())
+                        ? target : null, unique);
+        List<StatisticResponse> statistics = new ArrayList<>(counts.size());
+        counts.forEach((target, hits) -> statistics.add(new StatisticResponse(
+                target.getApp(), target.getUri(), hits)));
+        statistics.sort(Comparator.comparingLong(StatisticResponse::getHits)
+                .reversed());
+        log.info("Scanned {} statistics records, unique: {}",
+                statistics.size(), unique);
+        return statistics;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Map<Long, Long> getEventViews(final List<String> uris,
+                                         final boolean approximate) {
+        Map<String, Long> counts = store.views(uris);
+        Map<Long, Long> eventsViews = new HashMap<>();
+        counts.forEach((uri, views) -> {
+            Long eventId = EventUris.parseEventId(uri);
+            if (eventId == null) {
+                throw new IllegalArgumentException("Invalid ID in URI: "
+                        + uri);
+            }
+            eventsViews.put(eventId, views);
+        });
+        log.info("Views found: {}", eventsViews);
+        return eventsViews;
+    }
+}
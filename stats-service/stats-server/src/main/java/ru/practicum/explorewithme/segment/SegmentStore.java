@@ -0,0 +1,348 @@
+package ru.practicum.explorewithme.segment;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+import ru.practicum.explorewithme.model.StatisticEntity;
+import ru.practicum.explorewithme.rollup.HyperLogLog;
+import ru.practicum.explorewithme.rollup.LongHashSet;
+import ru.practicum.explorewithme.views.EventUris;
+import ru.practicum.explorewithme.views.ViewCacheProperties;
+import ru.practicum.explorewithme.views.Visitors;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Append-only store of hits in columnar segment files.
+ * <p>
+ * Hits are appended to the active segment, which is sealed and replaced
+ * by a new one when full. The app and URI of a hit are stored as the id
+ * of a target in the target dictionary, its IP as a 64-bit hash, so
+ * unique counts are exact up to hash collisions. Appends are serialized,
+ * scans run concurrently with them and see every hit appended before
+ * the scan started.
+ * <p>
+ * The all-time visitors of every event URI are also kept in memory as
+ * {@link Visitors}, built by one scan when the store opens and updated
+ * by every append, so event views are read without a scan.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "segment")
+@RequiredArgsConstructor
+@Slf4j
+public class SegmentStore implements SmartLifecycle {
+    /**
+     * Name of the target dictionary file.
+     */
+    private static final String DICTIONARY_FILE = "targets.dat";
+    /**
+     * Prefix of segment file names.
+     */
+    private static final String SEGMENT_PREFIX = "segment-";
+    /**
+     * Suffix of segment file names.
+     */
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    /**
+     * Storage settings.
+     */
+    private final StorageProperties properties;
+    /**
+     * View counter settings, for the number of visitors counted exactly.
+     */
+    private final ViewCacheProperties viewProperties;
+    /**
+     * Segments in append order, the last one active.
+     */
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    /**
+     * All-time visitors per event URI, guarded by this store.
+     */
+    private final Map<String, Visitors> views = new HashMap<>();
+    /**
+     * Target dictionary.
+     */
+    private volatile TargetDictionary dictionary;
+    /**
+     * Sequence number of the active segment.
+     */
+    private int sequence;
+    /**
+     * Whether the store is open.
+     */
+    private volatile boolean running;
+
+    /**
+     * Appends hits.
+     *
+     * @param hits the hits
+     */
+    public synchronized void append(final List<StatisticEntity> hits) {
+        for (StatisticEntity hit : hits) {
+            int targetId = dictionary.intern(hit.getApp(), hit.getUri());
+            long time = toMillis(hit.getCreationTime());
+            long ipHash = HyperLogLog.hash(hit.getIp());
+            if (!active().append(time, targetId, ipHash)) {
+                active().seal();
+                segments.add(newSegment());
+                active().append(time, targetId, ipHash);
+            }
+            if (EventUris.parseEventId(hit.getUri()) != null) {
+                views.computeIfAbsent(hit.getUri(), uri -> newVisitors())
+                        .add(ipHash);
+            }
+        }
+    }
+
+    /**
+     * Returns the all-time unique views of event URIs, over all apps.
+     *
+     * @param uris the URIs
+     * @return the views of every URI that has views
+     */
+    public synchronized Map<String, Long> views(final List<String> uris) {
+        Map<String, Long> counts = new HashMap<>();
+        for (String uri : uris) {
+            Visitors visitors = views.get(uri);
+            if (visitors != null && visitors.count() > 0) {
+                counts.put(uri, visitors.count());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Counts hits per group of targets over a closed time range.
+     *
+     * @param start  the start, inclusive
+     * @param end    the end, inclusive
+     * @param keyOf  maps a target to the key of its group, null to skip
+     * @param unique whether to count distinct IPs instead of hits
+     * @param <K>    the group key type
+     * @return the count of every group with hits
+     */
+    public <K> Map<K, Long> count(final LocalDateTime start,
+                                  final LocalDateTime end,
+                                  final Function<Target, K> keyOf,
+                                  final boolean unique) {
+        List<Segment> scanned = List.copyOf(segments);
+        int[] rows = new int[scanned.size()];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = scanned.get(i).count();
+        }
+        List<Target> targets;
+        synchronized (this) {
+            targets = dictionary.snapshot();
+        }
+        Map<K, Integer> groups = new HashMap<>();
+        List<K> keys = new ArrayList<>();
+        int[] groupOf = new int[targets.size()];
+        for (int i = 0; i < groupOf.length; i++) {
+            K key = keyOf.apply(targets.get(i));
+            groupOf[i] = key == null ? -1 : groups.computeIfAbsent(key, k -> {
+                keys.add(k);
+                return keys.size() - 1;
+            });
+        }
+        long[] hits = new long[keys.size()];
+        LongHashSet[] visitors = unique ? new LongHashSet[keys.size()] : null;
+        long from = toMillis(start);
+        long to = toMillis(end);
+        for (int i = 0; i < rows.length; i++) {
+            scanned.get(i).scan(from, to, rows[i], groupOf, hits, visitors);
+        }
+        Map<K, Long> counts = new HashMap<>();
+        for (int group = 0; group < hits.length; group++) {
+            if (hits[group] > 0) {
+                counts.put(keys.get(group),
+                        unique ? visitors[group].size() : hits[group]);
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void start() {
+        Path directory = Paths.get(properties.getDirectory());
+        try {
+            Files.createDirectories(directory);
+            dictionary = new TargetDictionary(
+                    directory.resolve(DICTIONARY_FILE));
+            List<Path> files;
+            try (Stream<Path> listed = Files.list(directory)) {
+                files = listed.filter(isSegmentFile()).sorted().toList();
+            }
+            for (Path file : files) {
+                segments.add(Segment.open(file));
+                sequence = Math.max(sequence, sequenceOf(file));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        for (int i = 0; i < segments.size() - 1; i++) {
+            if (!segments.get(i).isSealed()) {
+                segments.get(i).seal();
+            }
+        }
+        if (segments.isEmpty() || active().isSealed()) {
+            segments.add(newSegment());
+        }
+        indexViews();
+        running = true;
+        log.info("Segment store opened in {}, segments: {}, hits in the "
+                + "active one: {}", directory.toAbsolutePath(),
+                segments.size(), active().count());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        segments.forEach(Segment::close);
+        dictionary.force();
+        try {
+            dictionary.close();
+        } catch (IOException e) {
+            log.warn("Failed to close the target dictionary", e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int getPhase() {
+        return HitBuffer.PHASE;
+    }
+
+    /**
+     * Builds the visitors of every event URI from the opened segments,
+     * one segment at a time.
+     */
+    private void indexViews() {
+        List<Target> targets = dictionary.snapshot();
+        Map<String, Integer> groups = new HashMap<>();
+        List<String> uris = new ArrayList<>();
+        int[] groupOf = new int[targets.size()];
+        for (int i = 0; i < groupOf.length; i++) {
+            String uri = targets.get(i).getUri();
+            groupOf[i] = EventUris.parseEventId(uri) == null ? -1
+                    : groups.computeIfAbsent(uri, u -> {
+                        uris.add(u);
+                        return uris.size() - 1;
+                    });
+        }
+        for (Segment segment : segments) {
+            LongHashSet[] visitors = new LongHashSet[uris.size()];
+            segment.scan(Long.MIN_VALUE, Long.MAX_VALUE, segment.count(),
+                    groupOf, new long[uris.size()], visitors);
+            for (int group = 0; group < visitors.length; group++) {
+                if (visitors[group] != null) {
+                    views.computeIfAbsent(uris.get(group),
+                            uri -> newVisitors()).addAll(Visitors.of(
+                            visitors[group], viewProperties.getExactLimit()));
+                }
+            }
+        }
+        log.info("Indexed the views of {} events", views.size());
+    }
+
+    /**
+     * Creates empty visitors of an event.
+     *
+     * @return the visitors
+     */
+    private Visitors newVisitors() {
+        return new Visitors(viewProperties.getExactLimit());
+    }
+
+    /**
+     * Returns the active segment.
+     *
+     * @return the last segment
+     */
+    private Segment active() {
+        return segments.get(segments.size() - 1);
+    }
+
+    /**
+     * Creates the next segment file.
+     *
+     * @return the segment
+     */
+    private Segment newSegment() {
+        sequence++;
+        Path file = Paths.get(properties.getDirectory()).resolve(
+                String.format("%s%08d%s", SEGMENT_PREFIX, sequence,
+                        SEGMENT_SUFFIX));
+        log.info("Starting segment {}", file.getFileName());
+        return Segment.create(file, properties.getSegmentRows());
+    }
+
+    /**
+     * Matches the segment files of a directory listing.
+     *
+     * @return the predicate
+     */
+    private static Predicate<Path> isSegmentFile() {
+        return path -> {
+            String name = path.getFileName().toString();
+            return name.startsWith(SEGMENT_PREFIX)
+                    && name.endsWith(SEGMENT_SUFFIX);
+        };
+    }
+
+    /**
+     * Parses the sequence number of a segment file.
+     *
+     * @param file the file
+     * @return the sequence number
+     */
+    private static int sequenceOf(final Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    /**
+     * Converts a creation time to epoch milliseconds.
+     *
+     * @param time the creation time
+     * @return the epoch milliseconds
+     */
+    private static long toMillis(final LocalDateTime time) {
+        return time.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+}
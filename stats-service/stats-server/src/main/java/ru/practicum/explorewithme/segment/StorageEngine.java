@@ -0,0 +1,15 @@
+package ru.practicum.explorewithme.segment;
+
+/**
+ * Storage engine of the hits.
+ */
+public enum StorageEngine {
+    /**
+     * Hits in Postgres, with rollups, sketches and partitions.
+     */
+    JDBC,
+    /**
+     * Hits in local memory-mapped columnar segment files.
+     */
+    SEGMENT
+}
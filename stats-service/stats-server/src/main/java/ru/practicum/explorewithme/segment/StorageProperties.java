@@ -0,0 +1,32 @@
+package ru.practicum.explorewithme.segment;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration of the hit storage engine.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.storage")
+public class StorageProperties {
+    /**
+     * Default number of hits in one segment.
+     */
+    private static final int DEFAULT_SEGMENT_ROWS = 1 << 20;
+
+    /**
+     * Storage engine of the hits.
+     */
+    private StorageEngine engine = StorageEngine.JDBC;
+
+    /**
+     * Directory of the segment files of the segment engine.
+     */
+    private String directory = "segments";
+
+    /**
+     * Number of hits in one segment, after which it is sealed. At most
+     * 107,374,179, so that a segment file stays under 2 GB.
+     */
+    private int segmentRows = DEFAULT_SEGMENT_ROWS;
+}
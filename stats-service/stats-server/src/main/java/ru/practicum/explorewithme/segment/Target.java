@@ -0,0 +1,19 @@
+package ru.practicum.explorewithme.segment;
+
+import lombok.Value;
+
+/**
+ * App and URI of hits, stored by id in the segments.
+ */
+@Value
+public class Target {
+    /**
+     * The name of the application.
+     */
+    String app;
+
+    /**
+     * The URI of the request.
+     */
+    String uri;
+}
@@ -0,0 +1,174 @@
+package ru.practicum.explorewithme.segment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only file of the targets referred to by id from the segments.
+ * The id of a target is its position in the file. Every record is the
+ * length and the UTF-8 bytes of the app, then of the URI. A record cut
+ * short by a crash is dropped on open.
+ * <p>
+ * Not thread-safe, guarded by the segment store.
+ */
+class TargetDictionary implements AutoCloseable {
+    /**
+     * Bytes of a length prefix.
+     */
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    /**
+     * Dictionary file.
+     */
+    private final FileChannel channel;
+    /**
+     * Targets by id.
+     */
+    private final List<Target> targets = new ArrayList<>();
+    /**
+     * Ids by target.
+     */
+    private final Map<Target, Integer> ids = new HashMap<>();
+
+    /**
+     * Opens or creates the dictionary file.
+     *
+     * @param path the file
+     */
+    TargetDictionary(final Path path) {
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long valid = load();
+            if (valid < channel.size()) {
+                channel.truncate(valid);
+            }
+            channel.position(valid);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the id of a target, adding it when missing.
+     *
+     * @param app the name of the application
+     * @param uri the URI
+     * @return the id
+     */
+    int intern(final String app, final String uri) {
+        Target target = new Target(app, uri);
+        Integer id = ids.get(target);
+        if (id != null) {
+            return id;
+        }
+        byte[] appBytes = app.getBytes(StandardCharsets.UTF_8);
+        byte[] uriBytes = uri.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer record = ByteBuffer.allocate(2 * LENGTH_BYTES
+                + appBytes.length + uriBytes.length);
+        record.putInt(appBytes.length).put(appBytes)
+                .putInt(uriBytes.length).put(uriBytes).flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return add(target);
+    }
+
+    /**
+     * Returns the targets known so far, indexed by id.
+     *
+     * @return a copy of the targets
+     */
+    List<Target> snapshot() {
+        return List.copyOf(targets);
+    }
+
+    /**
+     * Forces the dictionary to disk.
+     */
+    void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads every complete record.
+     *
+     * @return the length of the complete records
+     * @throws IOException if the file cannot be read
+     */
+    private long load() throws IOException {
+        ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+        int read = 0;
+        while (content.hasRemaining() && read >= 0) {
+            read = channel.read(content, content.position());
+        }
+        content.flip();
+        int valid = 0;
+        while (true) {
+            String app = readString(content);
+            String uri = app == null ? null : readString(content);
+            if (uri == null) {
+                return valid;
+            }
+            add(new Target(app, uri));
+            valid = content.position();
+        }
+    }
+
+    /**
+     * Reads one length-prefixed string.
+     *
+     * @param content the content
+     * @return the string, or null if it is cut short
+     */
+    private static String readString(final ByteBuffer content) {
+        if (content.remaining() < LENGTH_BYTES) {
+            return null;
+        }
+        int length = content.getInt();
+        if (length < 0 || content.remaining() < length) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        content.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Adds a target to the in-memory indexes.
+     *
+     * @param target the target
+     * @return its id
+     */
+    private int add(final Target target) {
+        int id = targets.size();
+        targets.add(target);
+        ids.put(target, id);
+        return id;
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * This package contains the columnar, append-only segment storage engine
+ * of ExploreWithMe statistics.
+ */
+package ru.practicum.explorewithme.segment;
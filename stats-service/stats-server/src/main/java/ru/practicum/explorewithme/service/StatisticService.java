@@ -20,23 +20,43 @@ public interface StatisticService {
     void saveStatistic(StatisticRequest request);
 
     /**
-     * Retrieves statistics.
+     * Saves a batch of statistics. The creation time sent by the client
+     * is kept, so that hits delayed in a client-side buffer are recorded
+     * at the moment they happened.
+     *
+     * @param requests the statistic requests
+     */
+    void saveStatistics(List<StatisticRequest> requests);
+
+    /**
+     * Retrieves statistics. Hits before the raw horizon are only kept
+     * per minute and their unique hits only as estimates, so ranges
+     * that cannot be answered exactly from them are rejected unless
+     * approximate results are requested.
      *
      * @param start  the start date and time
      * @param end    the end date and time
      * @param uris   the list of URIs
      * @param unique whether to count only unique hits
+     * @param approximate whether unique hits may be estimated from
+     *                    sketches, and hits before the raw horizon
+     *                    counted per whole minute
      * @return the list of statistics
+     * @throws ru.practicum.explorewithme.exception
+     *         .CustomBadRequestException if the range cannot be answered
+     *         exactly and approximate results are not requested
      */
     List<StatisticResponse> getStatistic(
             LocalDateTime start,
-            LocalDateTime end, List<String> uris, boolean unique);
+            LocalDateTime end, List<String> uris, boolean unique,
+            boolean approximate);
 
 /**
  * Retrieves statistics.
  *
  * @param uris  uris
+ * @param approximate whether views may be estimated from sketches
  * @return  Map<Long, Long> event views
  */
-    Map<Long, Long> getEventViews(List<String> uris);
+    Map<Long, Long> getEventViews(List<String> uris, boolean approximate);
 }
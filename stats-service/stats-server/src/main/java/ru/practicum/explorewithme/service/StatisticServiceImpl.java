@@ -3,22 +3,39 @@ package ru.practicum.explorewithme.service;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import ru.practicum.explorewithme.StatisticRequest;
 import ru.practicum.explorewithme.StatisticResponse;
+import ru.practicum.explorewithme.compaction.CompactionRepository;
+import ru.practicum.explorewithme.exception.CustomBadRequestException;
+import ru.practicum.explorewithme.ingest.HitBuffer;
+import ru.practicum.explorewithme.ingest.HitClock;
+import ru.practicum.explorewithme.ingest.IngestProperties;
 import ru.practicum.explorewithme.model.StatisticEntity;
 import ru.practicum.explorewithme.model.StatisticMapper;
 import ru.practicum.explorewithme.repository.StatisticRepository;
+import ru.practicum.explorewithme.rollup.Granularity;
+import ru.practicum.explorewithme.rollup.QueryPlan;
+import ru.practicum.explorewithme.rollup.RollupPlanner;
+import ru.practicum.explorewithme.rollup.RollupRepository;
+import ru.practicum.explorewithme.rollup.VisitorSketchRepository;
+import ru.practicum.explorewithme.views.EventUris;
+import ru.practicum.explorewithme.views.ViewCounterService;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Implementation of the {@link StatisticService} interface.
+ * Implementation of the {@link StatisticService} interface on Postgres,
+ * the default storage engine.
  */
 @Service
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
 @RequiredArgsConstructor
 @Transactional
 @Slf4j
@@ -27,6 +44,38 @@ public class StatisticServiceImpl implements StatisticService {
      * Repository.
      */
     private final StatisticRepository repository;
+    /**
+     * Buffer of incoming hits.
+     */
+    private final HitBuffer hitBuffer;
+    /**
+     * Ingestion settings.
+     */
+    private final IngestProperties ingestProperties;
+    /**
+     * Resolves hit creation times.
+     */
+    private final HitClock hitClock;
+    /**
+     * Planner of rollup queries.
+     */
+    private final RollupPlanner rollupPlanner;
+    /**
+     * Rollup repository.
+     */
+    private final RollupRepository rollupRepository;
+    /**
+     * Visitor sketch repository.
+     */
+    private final VisitorSketchRepository sketchRepository;
+    /**
+     * In-memory view counters.
+     */
+    private final ViewCounterService viewCounterService;
+    /**
+     * Compaction repository, for the raw horizon.
+     */
+    private final CompactionRepository compactionRepository;
 
     /**
      * {@inheritDoc}
@@ -35,9 +84,28 @@ public class StatisticServiceImpl implements StatisticService {
     public void saveStatistic(final StatisticRequest request) {
         log.info("Attempting to save statistic for URI: {}", request.getUri());
         StatisticEntity newEntity = StatisticMapper.toEntity(request);
-        newEntity.setCreationTime(LocalDateTime.now());
-        repository.save(newEntity);
-        log.info("Statistic saved successfully for URI: {}", request.getUri());
+        newEntity.setCreationTime(hitClock.resolve(
+                newEntity.getCreationTime(), LocalDateTime.now()));
+        hitBuffer.submit(newEntity);
+        log.info("Statistic accepted for URI: {}", request.getUri());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void saveStatistics(final List<StatisticRequest> requests) {
+        log.info("Attempting to save {} statistics", requests.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<StatisticEntity> entities = new ArrayList<>(requests.size());
+        for (StatisticRequest request : requests) {
+            StatisticEntity entity = StatisticMapper.toEntity(request);
+            entity.setCreationTime(
+                    hitClock.resolve(entity.getCreationTime(), now));
+            entities.add(entity);
+        }
+        hitBuffer.submitAll(entities);
+        log.info("{} statistics accepted", entities.size());
     }
 
 
@@ -48,18 +116,40 @@ public class StatisticServiceImpl implements StatisticService {
     public List<StatisticResponse> getStatistic(final LocalDateTime start,
                                                 final LocalDateTime end,
                                                 final List<String> uris,
-                                                final boolean unique) {
-        log.info("Fetching statistics for uris {} from {} to {}, unique: {}",
-                uris, start, end, unique);
+                                                final boolean unique,
+                                                final boolean approximate) {
+        log.info("Fetching statistics for uris {} from {} to {}, unique: {}, "
+                + "approximate: {}", uris, start, end, unique, approximate);
+        flushPendingHits();
+        LocalDateTime rawFrom = compactionRepository.findHorizon();
 
         List<StatisticResponse> statistics;
 
-        if (unique) {
+        if (unique && approximate) {
+            statistics = sketchRepository.findUnique(rollupPlanner.plan(
+                    start, end, Granularity.HOUR, rawFrom), uris);
+            log.info("Estimated {} unique statistics records",
+                    statistics.size());
+        } else if (unique) {
+            if (rawFrom != null && start.isBefore(rawFrom)) {
+                throw new CustomBadRequestException("Unique hits before "
+                        + rawFrom + " (the raw horizon, floored to the "
+                        + "hour) are only kept as estimates, request them "
+                        + "with approximate=true");
+            }
             statistics = repository.findStatisticsUnique(start, end, uris);
             log.info("Fetched {} unique statistics records",
                     statistics.size());
         } else {
-            statistics = repository.findStatistic(uris, start, end);
+            QueryPlan plan = rollupPlanner.plan(start, end,
+                    Granularity.MINUTE, rawFrom);
+            if (plan.isWidened() && !approximate) {
+                throw new CustomBadRequestException("Hits before " + rawFrom
+                        + " (the raw horizon, floored to the hour) are only "
+                        + "kept per whole minute, request this range with "
+                        + "approximate=true");
+            }
+            statistics = rollupRepository.findHits(plan, uris);
             log.info("Fetched {} statistics records", statistics.size());
         }
         return statistics;
@@ -69,9 +159,23 @@ public class StatisticServiceImpl implements StatisticService {
      * {@inheritDoc}
      */
     @Override
-    public Map<Long, Long> getEventViews(final List<String> uris) {
-        log.info("Fetching statistics records by uris: {}", uris);
-        List<StatisticResponse> stats = repository.findStatisticByUriIn(uris);
+    public Map<Long, Long> getEventViews(final List<String> uris,
+                                         final boolean approximate) {
+        log.info("Fetching statistics records by uris: {}, approximate: {}",
+                uris, approximate);
+        if (!approximate && viewCounterService.isEnabled()) {
+            Map<Long, Long> eventsViews = viewCounterService.getViews(uris);
+            log.info("Views found: {}", eventsViews);
+            return eventsViews;
+        }
+        flushPendingHits();
+        if (!approximate) {
+            Map<Long, Long> eventsViews = viewCounterService.countViews(uris);
+            log.info("Views found: {}", eventsViews);
+            return eventsViews;
+        }
+        List<StatisticResponse> stats =
+                sketchRepository.findUniqueAllTime(uris);
         log.info("Stats found: {}", stats);
 
         Map<Long, Long> eventsViews = new HashMap<>();
@@ -85,18 +189,25 @@ public class StatisticServiceImpl implements StatisticService {
         return eventsViews;
     }
 
+    /**
+     * Flushes buffered hits so that reads observe every accepted hit.
+     */
+    private void flushPendingHits() {
+        if (ingestProperties.isFlushOnRead()) {
+            hitBuffer.flush();
+        }
+    }
+
     /**
      * Event extractor.
      * @param uri event uris
      * @return Long id
      */
     private Long eventIdExtractor(final String uri) {
-        String[] parts = uri.split("/");
-        String idString = parts[parts.length - 1];
-        try {
-            return Long.parseLong(idString);
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Invalid ID in URI: " + uri, e);
+        Long eventId = EventUris.parseEventId(uri);
+        if (eventId == null) {
+            throw new IllegalArgumentException("Invalid ID in URI: " + uri);
         }
+        return eventId;
     }
 }
@@ -0,0 +1,28 @@
+package ru.practicum.explorewithme.views;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Snapshot of the cached views of one event.
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class CachedViews {
+    /**
+     * The event id.
+     */
+    private final long eventId;
+
+    /**
+     * The URI the views were counted for.
+     */
+    private final String uri;
+
+    /**
+     * The number of unique views.
+     */
+    private final long views;
+}
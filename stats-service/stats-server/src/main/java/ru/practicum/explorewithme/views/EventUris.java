@@ -0,0 +1,38 @@
+package ru.practicum.explorewithme.views;
+
+/**
+ * Utility methods for event URIs such as {@code /events/42}.
+ */
+public final class EventUris {
+    /**
+     * Maximum number of digits of an id that always fits into a long.
+     */
+    private static final int MAX_ID_DIGITS = 18;
+    /**
+     * Radix of event ids.
+     */
+    private static final int RADIX = 10;
+
+    private EventUris() {
+    }
+
+    /**
+     * Extracts the event id from the last path segment of the URI.
+     *
+     * @param uri the URI
+     * @return the event id, or null if the last segment is not an id
+     */
+    public static Long parseEventId(final String uri) {
+        int start = uri.lastIndexOf('/') + 1;
+        int length = uri.length() - start;
+        if (length == 0 || length > MAX_ID_DIGITS) {
+            return null;
+        }
+        for (int i = start; i < uri.length(); i++) {
+            if (!Character.isDigit(uri.charAt(i))) {
+                return null;
+            }
+        }
+        return Long.parseLong(uri, start, uri.length(), RADIX);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.explorewithme.views;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Configuration of the in-memory event view counters.
+ */
+@Data
+@ConfigurationProperties(prefix = "stats.views.cache")
+public class ViewCacheProperties {
+    /**
+     * Default number of visitors per event and app counted exactly.
+     */
+    private static final int DEFAULT_EXACT_LIMIT = 1024;
+    /**
+     * Default number of events loaded on startup.
+     */
+    private static final int DEFAULT_WARM_SIZE = 10_000;
+    /**
+     * Default number of events compared with the database per check.
+     */
+    private static final int DEFAULT_CHECK_SAMPLE_SIZE = 200;
+
+    /**
+     * Whether views are served from the in-memory counters.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Maximum memory of the cached visitors. The least recently used
+     * events are evicted first.
+     */
+    private DataSize maxSize = DataSize.ofMegabytes(128);
+
+    /**
+     * Number of visitors per event and app counted exactly. Beyond it,
+     * the visitors of an event are kept as a HyperLogLog sketch of a
+     * fixed size and its views are estimated with about 1% error.
+     */
+    private int exactLimit = DEFAULT_EXACT_LIMIT;
+
+    /**
+     * Number of most recently visited events loaded on startup.
+     */
+    private int warmSize = DEFAULT_WARM_SIZE;
+
+    /**
+     * How far back the events loaded on startup may have been visited.
+     */
+    private Duration warmPeriod = Duration.ofDays(1);
+
+    /**
+     * Interval between consistency checks against the database.
+     */
+    private Duration checkInterval = Duration.ofMinutes(10);
+
+    /**
+     * Number of cached events compared with the database per check.
+     */
+    private int checkSampleSize = DEFAULT_CHECK_SAMPLE_SIZE;
+}
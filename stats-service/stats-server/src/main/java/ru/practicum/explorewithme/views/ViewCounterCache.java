@@ -0,0 +1,214 @@
+package ru.practicum.explorewithme.views;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Map of event id to the visitors of the event per app, bounded by the
+ * memory of the visitors. The least recently used events are evicted
+ * once the byte budget is exceeded. Updates of one event are atomic,
+ * updates of different events do not contend.
+ * <p>
+ * Visitors are kept as {@link Visitors}, so an accepted hit is counted
+ * at once without asking the database whether its visitor is new.
+ * Visitors loaded from the database are added to the cached ones rather
+ * than replacing them, so a load never drops a concurrently recorded
+ * hit. An event whose visitors have been recorded but not loaded yet
+ * is not served until it is loaded.
+ */
+@Component
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+public class ViewCounterCache {
+    /**
+     * Approximate memory used by a counter apart from its visitors.
+     */
+    private static final int COUNTER_OVERHEAD = 256;
+
+    /**
+     * Counters.
+     */
+    private final Cache<Long, Counter> counters;
+    /**
+     * Number of visitors per app counted exactly.
+     */
+    private final int exactLimit;
+
+    /**
+     * Creates the cache.
+     *
+     * @param properties cache settings
+     */
+    public ViewCounterCache(final ViewCacheProperties properties) {
+        exactLimit = properties.getExactLimit();
+        counters = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxSize().toBytes())
+                .weigher((Long eventId, Counter counter) -> counter.weight())
+                .build();
+    }
+
+    /**
+     * Returns the cached views of an event.
+     *
+     * @param eventId the event id
+     * @return the views, or null if the event is not loaded
+     */
+    public Long get(final long eventId) {
+        Counter counter = counters.getIfPresent(eventId);
+        return counter == null ? null : counter.views();
+    }
+
+    /**
+     * Records the visitor of an accepted hit.
+     *
+     * @param eventId the event id
+     * @param uri     the URI of the hit
+     * @param app     the app of the hit
+     * @param ipHash  the {@link ru.practicum.explorewithme.rollup
+     *                .HyperLogLog#hash(String) hash} of the IP of the hit
+     */
+    public void record(final long eventId, final String uri,
+                       final String app, final long ipHash) {
+        counters.asMap().compute(eventId, (id, cached) -> {
+            Counter counter = cached == null ? new Counter(uri) : cached;
+            counter.add(app, ipHash);
+            return counter;
+        });
+    }
+
+    /**
+     * Adds the visitors of an event loaded from the database to the
+     * cached ones and marks the event as loaded.
+     *
+     * @param eventId  the event id
+     * @param uri      the URI the visitors were loaded for
+     * @param visitors the visitors per app
+     */
+    public void load(final long eventId, final String uri,
+                     final Map<String, Visitors> visitors) {
+        counters.asMap().compute(eventId, (id, cached) -> {
+            Counter counter = cached == null ? new Counter(uri) : cached;
+            counter.load(visitors);
+            return counter;
+        });
+    }
+
+    /**
+     * Returns up to the given number of loaded events, the most
+     * frequently read first.
+     *
+     * @param limit the maximum number of events
+     * @return the cached events
+     */
+    public List<CachedViews> sample(final int limit) {
+        Map<Long, Counter> hottest = counters.policy().eviction()
+                .map(eviction -> eviction.hottest(limit))
+                .orElseGet(Map::of);
+        List<CachedViews> sample = new ArrayList<>(hottest.size());
+        hottest.forEach((eventId, counter) -> {
+            Long views = counter.views();
+            if (views != null) {
+                sample.add(new CachedViews(eventId, counter.uri, views));
+            }
+        });
+        return sample;
+    }
+
+    /**
+     * Returns the approximate number of cached events.
+     *
+     * @return the number of cached events
+     */
+    public long size() {
+        return counters.estimatedSize();
+    }
+
+    /**
+     * Creates empty visitors counted like the cached ones.
+     *
+     * @return the visitors
+     */
+    private Visitors newVisitors() {
+        return new Visitors(exactLimit);
+    }
+
+    /**
+     * Visitors of one event.
+     */
+    private final class Counter {
+        /**
+         * The URI the visitors were recorded for.
+         */
+        private final String uri;
+        /**
+         * The visitors per app.
+         */
+        private final Map<String, Visitors> visitors = new HashMap<>(2);
+        /**
+         * Whether the visitors stored in the database have been added.
+         */
+        private boolean loaded;
+
+        Counter(final String uri) {
+            this.uri = uri;
+        }
+
+        /**
+         * Adds the visitor of a hit.
+         *
+         * @param app    the app of the hit
+         * @param ipHash the hash of the IP of the hit
+         */
+        synchronized void add(final String app, final long ipHash) {
+            visitors.computeIfAbsent(app, a -> newVisitors()).add(ipHash);
+        }
+
+        /**
+         * Adds the stored visitors and marks the counter as loaded.
+         *
+         * @param stored the stored visitors per app
+         */
+        synchronized void load(final Map<String, Visitors> stored) {
+            stored.forEach((app, appVisitors) -> visitors
+                    .computeIfAbsent(app, a -> newVisitors())
+                    .addAll(appVisitors));
+            loaded = true;
+        }
+
+        /**
+         * Returns the unique views. When several apps report the same
+         * URI, the smallest count is used, as {@code /views} always did.
+         *
+         * @return the number of unique views, or null if not loaded
+         */
+        synchronized Long views() {
+            if (!loaded) {
+                return null;
+            }
+            return visitors.values().stream()
+                    .mapToLong(Visitors::count)
+                    .min()
+                    .orElse(0);
+        }
+
+        /**
+         * Returns the approximate memory used by the counter.
+         *
+         * @return the size in bytes
+         */
+        synchronized int weight() {
+            long bytes = COUNTER_OVERHEAD;
+            for (Visitors appVisitors : visitors.values()) {
+                bytes += appVisitors.bytes();
+            }
+            return (int) Math.min(bytes, Integer.MAX_VALUE);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.explorewithme.views;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.explorewithme.dictionary.DictionaryRepository;
+import ru.practicum.explorewithme.model.IpAddresses;
+import ru.practicum.explorewithme.rollup.HyperLogLog;
+import ru.practicum.explorewithme.rollup.LongHashSet;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads unique visitors per URI for the view counters.
+ * <p>
+ * Exact visitors are read from the raw hits and from the visitors kept
+ * by the compaction of old raw hits, sketched ones from the all-time
+ * visitor sketches.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+public class ViewCounterRepository {
+    /**
+     * Distinct visitors of the given URIs, raw and compacted.
+     */
+    private static final String VISITORS_SQL = "SELECT app_id, uri_id, ip "
+            + "FROM statistic WHERE %1$s UNION SELECT app_id, uri_id, ip "
+            + "FROM statistic_visitor WHERE %1$s";
+
+    /**
+     * JDBC template.
+     */
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Reads the IP hashes of the visitors of the given URIs per app.
+     * Reads every distinct visitor, so it is meant for URIs with few.
+     *
+     * @param uris the URIs
+     * @return the visitors per app of every URI that has hits
+     */
+    public Map<String, Map<String, LongHashSet>> findVisitors(
+            final List<String> uris) {
+        Map<String, Map<String, LongHashSet>> visitors = new HashMap<>();
+        jdbcTemplate.query(DictionaryRepository.withNames(String.format(
+                        VISITORS_SQL, DictionaryRepository.uriIdIn("uris")),
+                        "r.ip"),
+                new MapSqlParameterSource("uris", uris),
+                (RowCallbackHandler) rs -> visitors
+                        .computeIfAbsent(rs.getString("uri"),
+                                uri -> new HashMap<>(2))
+                        .computeIfAbsent(rs.getString("app"),
+                                app -> new LongHashSet())
+                        .add(HyperLogLog.hash(
+                                IpAddresses.decode(rs.getBytes("ip")))));
+        return visitors;
+    }
+
+    /**
+     * Reads the all-time visitor sketches of the given URIs per app.
+     *
+     * @param uris the URIs
+     * @return the sketches per app of every URI that has one
+     */
+    public Map<String, Map<String, HyperLogLog>> findSketches(
+            final List<String> uris) {
+        Map<String, Map<String, HyperLogLog>> sketches = new HashMap<>();
+        jdbcTemplate.query("SELECT app, uri, visitors FROM visitor_sketch "
+                        + "WHERE uri IN (:uris)",
+                new MapSqlParameterSource("uris", uris),
+                (RowCallbackHandler) rs -> sketches
+                        .computeIfAbsent(rs.getString("uri"),
+                                uri -> new HashMap<>(2))
+                        .put(rs.getString("app"), HyperLogLog.fromBytes(
+                                rs.getBytes("visitors"))));
+        return sketches;
+    }
+
+    /**
+     * Returns the most recently visited URIs, read from the hourly
+     * rollups rather than from the raw hits.
+     *
+     * @param limit the maximum number of URIs
+     * @param since the earliest visit to consider
+     * @return the URIs, most recently visited first
+     */
+    public List<String> findRecentlyVisited(final int limit,
+                                            final LocalDateTime since) {
+        return jdbcTemplate.queryForList("SELECT uri FROM statistic_rollup "
+                        + "WHERE granularity = 'HOUR' AND bucket_start >= "
+                        + ":since GROUP BY uri ORDER BY max(bucket_start) "
+                        + "DESC LIMIT :limit",
+                new MapSqlParameterSource("limit", limit)
+                        .addValue("since", Timestamp.valueOf(since)),
+                String.class);
+    }
+}
@@ -0,0 +1,306 @@
+package ru.practicum.explorewithme.views;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import ru.practicum.explorewithme.model.StatisticEntity;
+import ru.practicum.explorewithme.rollup.HyperLogLog;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves unique event views from {@link ViewCounterCache}.
+ * <p>
+ * Hits are recorded in the counters once their batch is committed,
+ * without another database round trip, so hits that are never written
+ * are never counted. The stored visitors of an event are loaded on a
+ * miss and for the most recently visited events on startup: from its
+ * all-time sketch when it has more visitors than are counted exactly,
+ * from its raw and compacted hits otherwise. A periodic check compares
+ * a sample of counters with the database and loads the visitors of the
+ * ones that fall behind, e.g. because of hits written by another
+ * instance.
+ */
+@Service
+@ConditionalOnProperty(prefix = "stats.storage", name = "engine",
+        havingValue = "jdbc", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ViewCounterService {
+    /**
+     * Maximum number of URIs whose visitors are loaded in one statement.
+     */
+    private static final int URIS_PER_LOAD = 100;
+    /**
+     * Counters.
+     */
+    private final ViewCounterCache cache;
+    /**
+     * Repository.
+     */
+    private final ViewCounterRepository repository;
+    /**
+     * Cache settings.
+     */
+    private final ViewCacheProperties properties;
+    /**
+     * Runs the consistency checks.
+     */
+    private volatile ScheduledExecutorService checker;
+
+    /**
+     * Returns whether views are served from the counters.
+     *
+     * @return true if the counters are enabled
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Returns unique views per event, reading only the events that are
+     * not loaded from the database.
+     *
+     * @param uris the event URIs
+     * @return the views of every event that has views
+     */
+    public Map<Long, Long> getViews(final List<String> uris) {
+        Map<Long, Long> views = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String uri : uris) {
+            Long cached = cache.get(eventId(uri));
+            if (cached == null) {
+                missing.add(uri);
+            } else if (cached > 0) {
+                views.put(eventId(uri), cached);
+            }
+        }
+        if (missing.isEmpty()) {
+            return views;
+        }
+        log.debug("View counters missing for uris: {}", missing);
+        load(missing);
+        for (String uri : missing) {
+            Long loaded = cache.get(eventId(uri));
+            if (loaded != null && loaded > 0) {
+                views.put(eventId(uri), loaded);
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Counts unique views per event from the stored visitors, without
+     * the counters, in the same way as the counters count them.
+     *
+     * @param uris the event URIs
+     * @return the views of every event that has views
+     */
+    public Map<Long, Long> countViews(final List<String> uris) {
+        Map<Long, Long> views = new HashMap<>();
+        read(uris).forEach((uri, visitors) -> {
+            long count = views(visitors);
+            if (count > 0) {
+                views.put(eventId(uri), count);
+            }
+        });
+        return views;
+    }
+
+    /**
+     * Records the visitors of written hits in the counters of their
+     * events. Hits of other URIs are ignored.
+     *
+     * @param hits the written hits
+     */
+    public void record(final List<StatisticEntity> hits) {
+        if (!isEnabled()) {
+            return;
+        }
+        for (StatisticEntity hit : hits) {
+            Long eventId = EventUris.parseEventId(hit.getUri());
+            if (eventId != null) {
+                cache.record(eventId, hit.getUri(), hit.getApp(),
+                        HyperLogLog.hash(hit.getIp()));
+            }
+        }
+    }
+
+    /**
+     * Warms the counters and schedules the consistency checks.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+        warm();
+        checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "view-counter-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getCheckInterval().toMillis();
+        checker.scheduleWithFixedDelay(this::checkQuietly,
+                interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the consistency checks.
+     */
+    @PreDestroy
+    public void stop() {
+        if (checker != null) {
+            checker.shutdownNow();
+        }
+    }
+
+    /**
+     * Loads the most recently visited events into the counters.
+     */
+    void warm() {
+        List<String> uris = repository.findRecentlyVisited(
+                        properties.getWarmSize(), LocalDateTime.now()
+                                .minus(properties.getWarmPeriod())).stream()
+                .filter(uri -> EventUris.parseEventId(uri) != null)
+                .toList();
+        for (int from = 0; from < uris.size(); from += URIS_PER_LOAD) {
+            load(uris.subList(from,
+                    Math.min(from + URIS_PER_LOAD, uris.size())));
+        }
+        log.info("Warmed {} view counters", uris.size());
+    }
+
+    /**
+     * Compares a sample of counters with the database and loads the
+     * stored visitors of the ones that fall behind it.
+     */
+    void check() {
+        List<CachedViews> sample =
+                cache.sample(properties.getCheckSampleSize());
+        if (sample.isEmpty()) {
+            return;
+        }
+        Map<String, Map<String, Visitors>> stored = read(sample.stream()
+                .map(CachedViews::getUri).toList());
+        int behind = 0;
+        for (CachedViews cached : sample) {
+            Map<String, Visitors> visitors =
+                    stored.getOrDefault(cached.getUri(), Map.of());
+            if (views(visitors) > cached.getViews()) {
+                cache.load(cached.getEventId(), cached.getUri(), visitors);
+                behind++;
+            }
+        }
+        if (behind == 0) {
+            log.debug("{} checked view counters are consistent",
+                    sample.size());
+            return;
+        }
+        log.warn("{} of {} checked view counters fell behind the "
+                + "database and were repaired", behind, sample.size());
+    }
+
+    /**
+     * Runs the check and logs failures instead of propagating them,
+     * so that the scheduled checks keep running.
+     */
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            log.warn("View counter check failed", e);
+        }
+    }
+
+    /**
+     * Loads the stored visitors of the given URIs into the counters.
+     *
+     * @param uris the event URIs
+     */
+    private void load(final List<String> uris) {
+        Map<String, Map<String, Visitors>> visitors = read(uris);
+        for (String uri : uris) {
+            cache.load(eventId(uri), uri,
+                    visitors.getOrDefault(uri, Map.of()));
+        }
+    }
+
+    /**
+     * Reads the stored visitors of the given URIs. The visitors of
+     * a URI whose sketches estimate more visitors than are counted
+     * exactly are its sketches; the others are read from the hits, so
+     * that no more than about the exact limit of IPs is read per URI.
+     *
+     * @param uris the URIs
+     * @return the visitors per app of every URI that has visitors
+     */
+    private Map<String, Map<String, Visitors>> read(final List<String> uris) {
+        Map<String, Map<String, HyperLogLog>> sketches =
+                repository.findSketches(uris);
+        Map<String, Map<String, Visitors>> visitors = new HashMap<>();
+        List<String> exact = new ArrayList<>();
+        for (String uri : uris) {
+            Map<String, HyperLogLog> uriSketches =
+                    sketches.getOrDefault(uri, Map.of());
+            if (uriSketches.values().stream().allMatch(sketch ->
+                    sketch.estimate() <= properties.getExactLimit())) {
+                exact.add(uri);
+                continue;
+            }
+            Map<String, Visitors> uriVisitors = new HashMap<>(2);
+            uriSketches.forEach((app, sketch) -> uriVisitors.put(app,
+                    Visitors.of(sketch, properties.getExactLimit())));
+            visitors.put(uri, uriVisitors);
+        }
+        if (!exact.isEmpty()) {
+            repository.findVisitors(exact).forEach((uri, byApp) -> {
+                Map<String, Visitors> uriVisitors = new HashMap<>(2);
+                byApp.forEach((app, hashes) -> uriVisitors.put(app,
+                        Visitors.of(hashes, properties.getExactLimit())));
+                visitors.put(uri, uriVisitors);
+            });
+        }
+        return visitors;
+    }
+
+    /**
+     * Returns the unique views of an event. When several apps report
+     * the same URI, the smallest count is used, as in
+     * {@link ViewCounterCache}.
+     *
+     * @param visitors the visitors per app
+     * @return the number of unique views
+     */
+    private static long views(final Map<String, Visitors> visitors) {
+        return visitors.values().stream()
+                .mapToLong(Visitors::count)
+                .min()
+                .orElse(0);
+    }
+
+    /**
+     * Extracts the event id from an event URI.
+     *
+     * @param uri the URI
+     * @return the event id
+     */
+    private static long eventId(final String uri) {
+        Long eventId = EventUris.parseEventId(uri);
+        if (eventId == null) {
+            throw new IllegalArgumentException("Invalid ID in URI: " + uri);
+        }
+        return eventId;
+    }
+}
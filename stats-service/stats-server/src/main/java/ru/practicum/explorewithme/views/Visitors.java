@@ -0,0 +1,132 @@
+package ru.practicum.explorewithme.views;
+
+import ru.practicum.explorewithme.rollup.HyperLogLog;
+import ru.practicum.explorewithme.rollup.LongHashSet;
+
+/**
+ * Unique visitors of one event, kept as IP hashes while there are few
+ * of them and as a HyperLogLog sketch once there are more than the
+ * exact limit, so that their memory stays bounded. Both forms are
+ * unions: adding a visitor twice does not change the count. Not
+ * thread-safe.
+ */
+public final class Visitors {
+    /**
+     * Number of visitors counted exactly.
+     */
+    private final int exactLimit;
+    /**
+     * IP hashes of the visitors, null once they are sketched.
+     */
+    private LongHashSet exact = new LongHashSet();
+    /**
+     * Sketch of the visitors, null while they are counted exactly.
+     */
+    private HyperLogLog sketch;
+    /**
+     * Count of the visitors, negative when it has to be computed.
+     */
+    private long count = -1;
+
+    /**
+     * Creates empty visitors.
+     *
+     * @param exactLimit the number of visitors counted exactly
+     */
+    public Visitors(final int exactLimit) {
+        this.exactLimit = exactLimit;
+    }
+
+    /**
+     * Creates visitors from their IP hashes.
+     *
+     * @param hashes     the IP hashes
+     * @param exactLimit the number of visitors counted exactly
+     * @return the visitors
+     */
+    public static Visitors of(final LongHashSet hashes, final int exactLimit) {
+        Visitors visitors = new Visitors(exactLimit);
+        hashes.forEach(visitors::add);
+        return visitors;
+    }
+
+    /**
+     * Creates visitors from their sketch.
+     *
+     * @param sketch     the sketch
+     * @param exactLimit the number of visitors counted exactly
+     * @return the visitors
+     */
+    public static Visitors of(final HyperLogLog sketch, final int exactLimit) {
+        Visitors visitors = new Visitors(exactLimit);
+        visitors.exact = null;
+        visitors.sketch = sketch;
+        return visitors;
+    }
+
+    /**
+     * Adds a visitor.
+     *
+     * @param hash the {@link HyperLogLog#hash(String) hash} of the IP
+     */
+    public void add(final long hash) {
+        if (sketch != null) {
+            sketch.addHash(hash);
+            count = -1;
+        } else if (exact.add(hash)) {
+            count = -1;
+            if (exact.size() > exactLimit) {
+                toSketch();
+            }
+        }
+    }
+
+    /**
+     * Adds every visitor of others.
+     *
+     * @param other the other visitors
+     */
+    public void addAll(final Visitors other) {
+        if (other.sketch == null) {
+            other.exact.forEach(this::add);
+            return;
+        }
+        toSketch();
+        sketch.merge(other.sketch);
+        count = -1;
+    }
+
+    /**
+     * Returns the number of visitors, estimated once they are sketched.
+     *
+     * @return the number of visitors
+     */
+    public long count() {
+        if (count < 0) {
+            count = sketch == null ? exact.size() : sketch.estimate();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the approximate memory used by the visitors.
+     *
+     * @return the size in bytes
+     */
+    public long bytes() {
+        return sketch == null ? (long) exact.capacity() * Long.BYTES
+                : HyperLogLog.BYTES;
+    }
+
+    /**
+     * Replaces the IP hashes with a sketch of them.
+     */
+    private void toSketch() {
+        if (sketch != null) {
+            return;
+        }
+        sketch = new HyperLogLog();
+        exact.forEach(sketch::addHash);
+        exact = null;
+    }
+}
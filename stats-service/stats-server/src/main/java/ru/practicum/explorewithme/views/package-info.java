@@ -0,0 +1,5 @@
+/**
+ * This package contains the in-memory event view counters that serve
+ * the views endpoint of ExploreWithMe.
+ */
+package ru.practicum.explorewithme.views;
@@ -1,9 +1,74 @@
+-- Dictionaries of the app and URI names the hits refer to by id.
+CREATE TABLE IF NOT EXISTS statistic_app (
+id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+name VARCHAR(256) not null,
+CONSTRAINT pk_statistic_app PRIMARY KEY (id),
+CONSTRAINT uq_statistic_app_name UNIQUE (name)
+);
+
+CREATE TABLE IF NOT EXISTS statistic_uri (
+id INTEGER GENERATED BY DEFAULT AS IDENTITY,
+name VARCHAR(256) not null,
+CONSTRAINT pk_statistic_uri PRIMARY KEY (id),
+CONSTRAINT uq_statistic_uri_name UNIQUE (name)
+);
+
+-- Raw hits, range partitioned by creation time. Partitions, the default
+-- partition and the indexes are maintained by PartitionManager, which
+-- also converts a statistic table created before partitioning. IPs are
+-- stored in the binary form of IpAddresses. Tables created before the
+-- dictionaries are converted by DictionaryMigration.
+CREATE SEQUENCE IF NOT EXISTS statistic_hit_id_seq;
+
 CREATE TABLE IF NOT EXISTS statistic (
-id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+id BIGINT NOT NULL DEFAULT nextval('statistic_hit_id_seq'),
+app_id INTEGER not null,
+uri_id INTEGER not null,
+ip BYTEA not null,
+creation_time TIMESTAMP
+) PARTITION BY RANGE (creation_time);
+
+CREATE TABLE IF NOT EXISTS statistic_rollup (
+granularity VARCHAR(16) not null,
+bucket_start TIMESTAMP not null,
+app VARCHAR(256) not null,
+uri VARCHAR(256) not null,
+hits BIGINT not null,
+visitors BYTEA,
+merged_hits BIGINT not null DEFAULT 0,
+CONSTRAINT pk_statistic_rollup
+PRIMARY KEY (granularity, bucket_start, app, uri)
+);
+
+ALTER TABLE statistic_rollup ADD COLUMN IF NOT EXISTS visitors BYTEA;
+
+-- Hits of an hourly bucket whose visitors have been merged into the
+-- sketches; buckets that fall behind their hits are rebuilt on startup.
+ALTER TABLE statistic_rollup
+ADD COLUMN IF NOT EXISTS merged_hits BIGINT not null DEFAULT 0;
+
+-- All-time HyperLogLog sketch of the visitors per app and URI.
+CREATE TABLE IF NOT EXISTS visitor_sketch (
 app VARCHAR(256) not null,
 uri VARCHAR(256) not null,
-ip VARCHAR(256) not null,
-creation_time TIMESTAMP,
-CONSTRAINT pk_statistic PRIMARY KEY (id)
-)
+visitors BYTEA not null,
+CONSTRAINT pk_visitor_sketch PRIMARY KEY (app, uri)
+);
+
+-- (uri, ip) pairs of compacted raw hits, kept up to the exact limit of
+-- the view counters per URI: keeps all-time unique views of URIs with
+-- few visitors exact once the raw hits are gone. Views of the others
+-- are estimated from their visitor sketches.
+CREATE TABLE IF NOT EXISTS statistic_visitor (
+app_id INTEGER not null,
+uri_id INTEGER not null,
+ip BYTEA not null,
+CONSTRAINT pk_statistic_visitor PRIMARY KEY (uri_id, ip)
+);
 
+-- Raw horizon: raw hits created before raw_from may be compacted.
+CREATE TABLE IF NOT EXISTS statistic_compaction (
+id SMALLINT DEFAULT 1 CHECK (id = 1),
+raw_from TIMESTAMP not null,
+CONSTRAINT pk_statistic_compaction PRIMARY KEY (id)
+);
@@ -0,0 +1,85 @@
+package ru.practicum.explorewithme;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks the API against one storage engine. Subclasses start the
+ * application with the engine. Event ids are random, so that the
+ * checks also pass against a store that keeps earlier hits.
+ */
+public abstract class StatsApiTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void countsSubmittedHits() throws Exception {
+        long first = ThreadLocalRandom.current().nextLong(1, 1L << 40);
+        long second = first + 1;
+        hit("/events/" + first, "10.0.0.1");
+        hit("/events/" + first, "10.0.0.1");
+        hit("/events/" + first, "10.0.0.2");
+        mockMvc.perform(post("/hit/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[" + body("/events/" + second, "10.0.0.1")
+                                + "]"))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/stats")
+                        .param("start", "2000-01-01 00:00:00")
+                        .param("end", "2100-01-01 00:00:00")
+                        .param("uris", "/events/" + first))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].app").value("ewm-main-service"))
+                .andExpect(jsonPath("$[0].hits").value(3));
+        mockMvc.perform(get("/stats")
+                        .param("start", "2000-01-01 00:00:00")
+                        .param("end", "2100-01-01 00:00:00")
+                        .param("uris", "/events/" + first)
+                        .param("unique", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].hits").value(2));
+        mockMvc.perform(get("/views")
+                        .param("uris", "/events/" + first,
+                                "/events/" + second))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['" + first + "']").value(2))
+                .andExpect(jsonPath("$['" + second + "']").value(1));
+    }
+
+    /**
+     * Submits one hit.
+     *
+     * @param uri the URI of the hit
+     * @param ip  the IP of the hit
+     * @throws Exception if the request fails
+     */
+    private void hit(final String uri, final String ip) throws Exception {
+        mockMvc.perform(post("/hit")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body(uri, ip)))
+                .andExpect(status().isCreated());
+    }
+
+    /**
+     * Builds the JSON body of a hit.
+     *
+     * @param uri the URI of the hit
+     * @param ip  the IP of the hit
+     * @return the JSON body
+     */
+    private static String body(final String uri, final String ip) {
+        return "{\"app\": \"ewm-main-service\", \"uri\": \"" + uri
+                + "\", \"ip\": \"" + ip + "\"}";
+    }
+}
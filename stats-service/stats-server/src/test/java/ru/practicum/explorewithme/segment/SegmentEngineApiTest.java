@@ -0,0 +1,44 @@
+package ru.practicum.explorewithme.segment;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.explorewithme.StatsApiTest;
+import ru.practicum.explorewithme.service.StatisticService;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the segment engine serves the API without a database.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("segment")
+class SegmentEngineApiTest extends StatsApiTest {
+    @TempDir
+    private static Path segments;
+
+    @Autowired
+    private ApplicationContext context;
+
+    @DynamicPropertySource
+    static void storage(final DynamicPropertyRegistry registry) {
+        registry.add("stats.storage.directory", segments::toString);
+    }
+
+    @Test
+    void startsWithoutDatabase() {
+        assertThat(context.getBean(StatisticService.class))
+                .isInstanceOf(SegmentStatisticService.class);
+        assertThat(context.getBeanNamesForType(DataSource.class)).isEmpty();
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.explorewithme.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.explorewithme.StatsApiTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the default jdbc engine serves the API. Needs a Postgres
+ * database, given by the {@code STATS_TEST_DATASOURCE_URL},
+ * {@code STATS_TEST_DATASOURCE_USERNAME} and
+ * {@code STATS_TEST_DATASOURCE_PASSWORD} environment variables, and is
+ * skipped without one.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@EnabledIfEnvironmentVariable(named = "STATS_TEST_DATASOURCE_URL",
+        matches = ".+")
+class JdbcEngineApiTest extends StatsApiTest {
+    @Autowired
+    private ApplicationContext context;
+
+    @DynamicPropertySource
+    static void storage(final DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url",
+                () -> System.getenv("STATS_TEST_DATASOURCE_URL"));
+        registry.add("spring.datasource.username",
+                () -> System.getenv("STATS_TEST_DATASOURCE_USERNAME"));
+        registry.add("spring.datasource.password",
+                () -> System.getenv("STATS_TEST_DATASOURCE_PASSWORD"));
+        // Hits are written before the request returns.
+        registry.add("stats.ingest.buffered", () -> "false");
+    }
+
+    @Test
+    void startsWithJdbcEngine() {
+        assertThat(context.getBean(StatisticService.class))
+                .isInstanceOf(StatisticServiceImpl.class);
+    }
+}